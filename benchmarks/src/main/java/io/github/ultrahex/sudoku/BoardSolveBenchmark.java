@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End to end solves and uniqueness checks of {@link Board}s, for every
+ * supported size.
+ * <p>
+ * Each invocation works on the next puzzle of the corpus, so the
+ * score is the mean time per puzzle over the whole corpus.
+ *
+ * @author Matthew William Noel
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardSolveBenchmark {
+
+  @Param({Corpus.EASY, Corpus.HARD, Corpus.SEVENTEEN_CLUE, Corpus.SIXTEEN,
+      Corpus.TWENTY_FIVE})
+  public String corpus;
+
+  private int next;
+  private Board[] puzzles;
+  private Board scratch;
+  private Solver solver;
+
+  @Setup
+  public void setup() {
+    this.puzzles = Corpus.loadBoards(this.corpus);
+    this.scratch = new Board(this.puzzles[0]);
+    this.solver = new Solver(this.scratch);
+  }
+
+  @Benchmark
+  public boolean solve() {
+    Board puzzle = this.puzzles[this.next];
+    this.next = (this.next + 1) % this.puzzles.length;
+    return new Solver(new Board(puzzle)).solve();
+  }
+
+  /**
+   * One board and one solver for every puzzle, as batch workers use them.
+   * After warm up this should allocate nothing.
+   */
+  @Benchmark
+  public boolean solveReused() {
+    Board puzzle = this.puzzles[this.next];
+    this.next = (this.next + 1) % this.puzzles.length;
+    this.scratch.load(puzzle);
+    this.solver.load(this.scratch);
+    return this.solver.solve();
+  }
+
+  /**
+   * The check a generator runs on every candidate puzzle.
+   */
+  @Benchmark
+  public boolean hasUniqueSolution() {
+    Board puzzle = this.puzzles[this.next];
+    this.next = (this.next + 1) % this.puzzles.length;
+    return new Solver(puzzle).hasUniqueSolution();
+  }
+}
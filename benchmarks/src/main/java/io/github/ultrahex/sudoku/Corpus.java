@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Curated puzzle sets, one puzzle per line in the 81 character format.
+ *
+ * @author Matthew William Noel
+ */
+final class Corpus {
+
+  static final String EASY = "easy";
+  static final String HARD = "hard";
+  static final String MEDIUM = "medium";
+  static final String SEVENTEEN_CLUE = "17-clue";
+  static final String SIXTEEN = "16x16";
+  static final String TWENTY_FIVE = "25x25";
+
+  /**
+   * Loads a corpus of 9x9 puzzles.
+   */
+  static Digit[][][] load(String name) {
+    return lines(name).stream().map(Corpus::parse).toArray(Digit[][][]::new);
+  }
+
+  /**
+   * Loads a corpus of puzzles of any size.
+   */
+  static Board[] loadBoards(String name) {
+    return lines(name).stream().map(Board::parse).toArray(Board[]::new);
+  }
+
+  /**
+   * Loads a corpus as it is stored, one puzzle per line.
+   */
+  static byte[] loadBytes(String name) {
+    return String.join("\n", lines(name)).getBytes(StandardCharsets.US_ASCII);
+  }
+
+  private static List<String> lines(String name) {
+    InputStream stream = Corpus.class.getResourceAsStream(name + ".txt");
+    if (stream == null) {
+      throw new IllegalArgumentException("No corpus named " + name);
+    }
+    try (BufferedReader reader = new BufferedReader(
+        new InputStreamReader(stream, StandardCharsets.US_ASCII))) {
+      return reader.lines()
+          .map(String::trim)
+          .filter((line) -> !line.isEmpty())
+          .collect(Collectors.toList());
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private static Digit[][] parse(String line) {
+    Digit[][] puzzle = new Digit[Digit.COUNT][Digit.COUNT];
+    for (int i = 0; i < Digit.COUNT * Digit.COUNT; i++) {
+      char c = line.charAt(i);
+      if (c >= '1' && c <= '9') {
+        puzzle[i / Digit.COUNT][i % Digit.COUNT] = Digit.valueOf(c - '0');
+      }
+    }
+    return puzzle;
+  }
+
+  private Corpus() {
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * How many 9x9 puzzles {@link Generator} makes per second, for each
+ * difficulty. Every thread has its own seeded random numbers, so runs are
+ * repeatable; run with {@code -t} to measure several threads at once.
+ *
+ * @author Matthew William Noel
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratorBenchmark {
+
+  @Param({"EASY", "MEDIUM", "HARD", "EXPERT"})
+  public Difficulty difficulty;
+
+  private Generator generator;
+  private Random random;
+
+  @Setup
+  public void setup() {
+    this.generator = new Generator(Coordinate.SIZE, this.difficulty);
+    this.random = new Random(42);
+  }
+
+  @Benchmark
+  public Board generate() {
+    return this.generator.generate(this.random);
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The scalar and vector {@link Kernel}s side by side, on the candidates each
+ * puzzle of the corpus is left with when logic runs out, and then in whole
+ * solves, where the kernel is chosen when the JVM starts.
+ *
+ * @author Matthew William Noel
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class KernelBenchmark {
+
+  @Param({Corpus.HARD, Corpus.SEVENTEEN_CLUE, Corpus.SIXTEEN, Corpus.TWENTY_FIVE})
+  public String corpus;
+
+  private int next;
+  private Board[] puzzles;
+  private int[][] states;
+  private Kernel vector;
+
+  @Setup
+  public void setup() {
+    this.vector = Kernel.vector();
+    if (this.vector == null) {
+      throw new IllegalStateException("The Vector API is not available");
+    }
+    this.puzzles = Corpus.loadBoards(this.corpus);
+    this.states = new int[this.puzzles.length][];
+    for (int i = 0; i < this.puzzles.length; i++) {
+      Solver solver = new Solver(new Board(this.puzzles[i]));
+      solver.updateRegisters();
+      solver.propagate(Solver.SEARCH_STRATEGIES);
+      Candidates candidates = solver.getCandidates();
+      int[] masks = new int[candidates.getTopology().cells];
+      for (int cell = 0; cell < masks.length; cell++) {
+        masks[cell] = candidates.getMask(cell);
+      }
+      this.states[i] = masks;
+    }
+  }
+
+  @Benchmark
+  public int scalar() {
+    int[] masks = this.states[this.next];
+    this.next = (this.next + 1) % this.states.length;
+    return Kernel.SCALAR.mostConstrainedCell(masks);
+  }
+
+  @Benchmark
+  public int vector() {
+    int[] masks = this.states[this.next];
+    this.next = (this.next + 1) % this.states.length;
+    return this.vector.mostConstrainedCell(masks);
+  }
+
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector",
+      "-D" + Kernel.PROPERTY + "=false"})
+  public boolean solveScalar() {
+    return this.solve();
+  }
+
+  @Benchmark
+  public boolean solveVector() {
+    return this.solve();
+  }
+
+  private boolean solve() {
+    Board puzzle = this.puzzles[this.next];
+    this.next = (this.next + 1) % this.puzzles.length;
+    return new Solver(new Board(puzzle)).solve();
+  }
+}
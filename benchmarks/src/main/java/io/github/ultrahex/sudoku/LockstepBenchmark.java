@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A block of puzzles solved one at a time by a reused {@link Solver}, against
+ * the same block solved by a {@link LockstepSolver}. The corpus is repeated
+ * to fill the block, and the score is the mean time per puzzle.
+ *
+ * @author Matthew William Noel
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LockstepBenchmark {
+
+  private static final int BLOCK = 256;
+
+  @Param({Corpus.EASY, Corpus.MEDIUM, Corpus.HARD, Corpus.SEVENTEEN_CLUE})
+  public String corpus;
+
+  @Param({"16"})
+  public int slots;
+
+  private Board[] boards;
+  private LockstepSolver lockstep;
+  private Board[] puzzles;
+  private Solver solver;
+
+  @Setup
+  public void setup() {
+    Board[] corpus = Corpus.loadBoards(this.corpus);
+    this.puzzles = new Board[BLOCK];
+    this.boards = new Board[BLOCK];
+    for (int i = 0; i < BLOCK; i++) {
+      this.puzzles[i] = corpus[i % corpus.length];
+      this.boards[i] = new Board(this.puzzles[i]);
+    }
+    this.solver = new Solver(this.boards[0]);
+    this.lockstep = new LockstepSolver(this.boards[0].getSize(), this.slots);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BLOCK)
+  public int oneAtATime() {
+    int solved = 0;
+    for (int i = 0; i < BLOCK; i++) {
+      this.boards[i].load(this.puzzles[i]);
+      this.solver.load(this.boards[i]);
+      solved += this.solver.solve() ? 1 : 0;
+    }
+    return solved;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BLOCK)
+  public int lockstep() {
+    for (int i = 0; i < BLOCK; i++) {
+      this.boards[i].load(this.puzzles[i]);
+    }
+    return this.lockstep.solve(this.boards);
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing a whole corpus, one puzzle per line, with {@link PuzzleParser} into
+ * a reused array of cells. The GC profiler should show no allocation beyond
+ * the parser itself.
+ *
+ * @author Matthew William Noel
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+  @Param({Corpus.EASY, Corpus.SIXTEEN, Corpus.TWENTY_FIVE})
+  public String corpus;
+
+  private final byte[] cells = new byte[PuzzleParser.MAX_CELLS];
+  private ByteBuffer text;
+
+  @Setup
+  public void setup() {
+    this.text = ByteBuffer.wrap(Corpus.loadBytes(this.corpus));
+  }
+
+  @Benchmark
+  public int parseCorpus() {
+    PuzzleParser parser = new PuzzleParser(this.text.duplicate());
+    int cells = 0;
+    int size;
+    while ((size = parser.next(this.cells)) != 0) {
+      cells += size * size;
+    }
+    return cells;
+  }
+}
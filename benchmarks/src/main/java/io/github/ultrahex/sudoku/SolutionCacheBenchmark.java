@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Looking puzzles up in a {@link SolutionCache}. The cache is filled with the
+ * corpus and then asked for copies of it that are relabelled, have their
+ * bands reversed and are transposed, so every lookup is a hit that only the
+ * {@link CanonicalForm} can find. Compare with {@link BoardSolveBenchmark}.
+ *
+ * @author Matthew William Noel
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolutionCacheBenchmark {
+
+  @Param({Corpus.EASY, Corpus.HARD, Corpus.SIXTEEN})
+  public String corpus;
+
+  private final SolutionCache cache = new SolutionCache(1024);
+  private Board[] copies;
+  private int next;
+
+  private static Board shuffle(Board puzzle) {
+    int size = puzzle.getSize();
+    int root = (int) Math.round(Math.sqrt(size));
+    Board copy = new Board(size);
+    for (int row = 0; row < size; row++) {
+      int band = root - 1 - row / root;
+      for (int column = 0; column < size; column++) {
+        int value = puzzle.get(band * root + row % root, column);
+        copy.set(column, row, value == 0 ? 0 : value % size + 1);
+      }
+    }
+    return copy;
+  }
+
+  @Setup
+  public void setup() {
+    Board[] puzzles = Corpus.loadBoards(this.corpus);
+    this.copies = new Board[puzzles.length];
+    for (int i = 0; i < puzzles.length; i++) {
+      this.cache.solve(new Board(puzzles[i]));
+      this.copies[i] = shuffle(puzzles[i]);
+    }
+  }
+
+  @Benchmark
+  public CanonicalForm canonicalForm() {
+    Board puzzle = this.copies[this.next];
+    this.next = (this.next + 1) % this.copies.length;
+    return CanonicalForm.of(puzzle);
+  }
+
+  @Benchmark
+  public boolean solveCached() {
+    Board puzzle = this.copies[this.next];
+    this.next = (this.next + 1) % this.copies.length;
+    return this.cache.solve(new Board(puzzle));
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of setting up a {@link Solver} and of its first propagation pass.
+ * <p>
+ * The solver never touches its puzzle before the final write back, so one
+ * {@link Grid} is shared by every invocation.
+ *
+ * @author Matthew William Noel
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmark {
+
+  @Param({Corpus.EASY, Corpus.HARD})
+  public String corpus;
+
+  private Grid puzzle;
+
+  @Benchmark
+  public Solver newSolver() {
+    return new Solver(this.puzzle);
+  }
+
+  /**
+   * Construction, loading the givens and one {@code singleCandidate()} pass.
+   */
+  @Benchmark
+  public Solver singleCandidatePass() {
+    Solver solver = new Solver(this.puzzle);
+    solver.updateRegisters();
+    solver.singleCandidate();
+    return solver;
+  }
+
+  @Setup
+  public void setup() {
+    this.puzzle = new Grid(Corpus.load(this.corpus)[0]);
+  }
+}
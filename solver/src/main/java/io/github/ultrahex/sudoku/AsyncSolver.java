@@ -0,0 +1,161 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Solves puzzles on an executor, for callers that must not block: one at a
+ * time as {@link CompletableFuture}s, or as a stream through a
+ * {@link Flow.Processor}.
+ * <p>
+ * Puzzles are taken as {@link Snapshot}s, or copied when they are given, so
+ * the caller's grids and boards are never touched, and every answer is an
+ * immutable {@link SolveResult}. Solvers are pooled, so a puzzle costs no
+ * more than a blocking {@link Solver#solve()} on a warm solver.
+ * <p>
+ * Unless given an executor, each puzzle runs on a virtual thread where the
+ * JVM has them, and on a pooled thread otherwise; {@link #close()} shuts that
+ * executor down, but leaves one that was given alone.
+ *
+ * @author Matthew William Noel
+ */
+public final class AsyncSolver implements AutoCloseable {
+
+  /**
+   * @return an executor that starts a virtual thread per task on Java 21
+   *     onwards, or a cached thread pool before that
+   */
+  static ExecutorService newDefaultExecutor() {
+    try {
+      // The build still targets 17.
+      return (ExecutorService) Executors.class
+          .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException ex) {
+      return Executors.newCachedThreadPool();
+    }
+  }
+
+  private final Executor executor;
+  /**
+   * Null unless the executor is ours to shut down.
+   */
+  private final ExecutorService owned;
+  private final ConcurrentLinkedQueue<Solver> solvers = new ConcurrentLinkedQueue<>();
+
+  public AsyncSolver() {
+    this.owned = newDefaultExecutor();
+    this.executor = this.owned;
+  }
+
+  /**
+   * @param executor where puzzles are solved, which stays open on
+   *     {@link #close()}
+   */
+  public AsyncSolver(Executor executor) {
+    if (executor == null) {
+      throw new IllegalArgumentException("An executor is required");
+    }
+    this.owned = null;
+    this.executor = executor;
+  }
+
+  /**
+   * Shuts down the executor if it was made here; puzzles already submitted
+   * are still solved.
+   */
+  @Override
+  public void close() {
+    if (this.owned != null) {
+      this.owned.shutdown();
+    }
+  }
+
+  /**
+   * @param window the most puzzles taken from upstream that are not yet
+   *     delivered downstream, which bounds the memory used and the number of
+   *     puzzles solved at once
+   * @return a processor for a single subscriber, which solves the puzzles it
+   *     is given and delivers the results in the same order
+   */
+  public Flow.Processor<Snapshot, SolveResult> processor(int window) {
+    return new SolveProcessor(this, window);
+  }
+
+  public CompletableFuture<SolveResult> solveAsync(Board board) {
+    return this.solveAsync(board.snapshot(), Budget.unlimited());
+  }
+
+  public CompletableFuture<SolveResult> solveAsync(Grid grid) {
+    return this.solveAsync(grid.snapshot(), Budget.unlimited());
+  }
+
+  public CompletableFuture<SolveResult> solveAsync(Snapshot puzzle) {
+    return this.solveAsync(puzzle, Budget.unlimited());
+  }
+
+  /**
+   * Solves a puzzle within a budget. Cancelling the future cancels the
+   * budget, so a solve already under way stops at its next check.
+   *
+   * @return the result; completed exceptionally only if the executor turned
+   *     the puzzle away
+   */
+  public CompletableFuture<SolveResult> solveAsync(Snapshot puzzle, Budget budget) {
+    CompletableFuture<SolveResult> future = new CompletableFuture<>();
+    future.whenComplete((result, ex) -> {
+      if (ex instanceof CancellationException) {
+        budget.cancel();
+      }
+    });
+    try {
+      this.executor.execute(() -> {
+        if (future.isDone()) {
+          return;
+        }
+        try {
+          future.complete(this.solve(puzzle, budget));
+        } catch (RuntimeException | Error ex) {
+          future.completeExceptionally(ex);
+        }
+      });
+    } catch (RejectedExecutionException ex) {
+      future.completeExceptionally(ex);
+    }
+    return future;
+  }
+
+  private SolveResult solve(Snapshot puzzle, Budget budget) {
+    Board board = puzzle.toBoard();
+    Solver solver = Solver.fromPool(this.solvers, board);
+    try {
+      return solver.solve(budget);
+    } finally {
+      this.solvers.offer(solver);
+    }
+  }
+}
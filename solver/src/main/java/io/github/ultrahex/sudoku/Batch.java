@@ -0,0 +1,218 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Solves a stream of puzzles, one per line, on a pool of worker threads. Lines
+ * of 81 characters are 9x9 puzzles, 256 are 16x16 and 625 are 25x25.
+ * <p>
+ * Solutions are written in input order. At most a fixed number of puzzles per
+ * worker are in flight at once, so memory use does not grow with the input.
+ *
+ * @author Matthew William Noel
+ */
+final class Batch {
+
+  /*
+   * Packed puzzles are handed out this many at a time, since one is too
+   * little work to be worth a task.
+   */
+  private static final int BLOCK = 256;
+  private static final int IN_FLIGHT_PER_THREAD = 64;
+  private static final Logger logger = Logger.getLogger(Batch.class.getName());
+
+  private static void write(Future<String> result, Writer output)
+      throws IOException, InterruptedException {
+    try {
+      output.write(result.get());
+      output.write(System.lineSeparator());
+    } catch (ExecutionException ex) {
+      throw new IllegalStateException(ex.getCause());
+    }
+  }
+
+  /**
+   * Null unless repeated puzzles are looked up rather than solved.
+   */
+  private final SolutionCache cache;
+  /*
+   * Each worker keeps its solver from puzzle to puzzle.
+   */
+  private final ThreadLocal<Solver> solvers = new ThreadLocal<>();
+  private final int threads;
+  private final LongAdder unsolved = new LongAdder();
+
+  Batch(int threads) {
+    this(threads, null);
+  }
+
+  Batch(int threads, SolutionCache cache) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("At least one thread is required");
+    }
+    this.threads = threads;
+    this.cache = cache;
+  }
+
+  /**
+   * Solves every puzzle in the input and reports the throughput.
+   * <p>
+   * Blank lines are skipped. Puzzles that are malformed or have no solution
+   * are copied to the output unchanged.
+   *
+   * @return the number of puzzles read
+   */
+  long run(BufferedReader input, Writer output)
+      throws IOException, InterruptedException {
+    ExecutorService workers = Executors.newFixedThreadPool(this.threads);
+    ArrayDeque<Future<String>> pending = new ArrayDeque<>();
+    int capacity = this.threads * IN_FLIGHT_PER_THREAD;
+    long count = 0;
+    long start = System.nanoTime();
+
+    try {
+      String line;
+      while ((line = input.readLine()) != null) {
+        String puzzle = line.trim();
+        if (puzzle.isEmpty()) {
+          continue;
+        }
+        long number = ++count;
+        pending.add(workers.submit(() -> this.solve(puzzle, number)));
+        if (pending.size() >= capacity) {
+          write(pending.remove(), output);
+        }
+      }
+      while (!pending.isEmpty()) {
+        write(pending.remove(), output);
+      }
+      output.flush();
+    } finally {
+      workers.shutdownNow();
+    }
+
+    this.report(count, start);
+    if (this.unsolved.sum() > 0) {
+      logger.log(Level.WARNING, "{0} puzzles had no solution or were malformed",
+          this.unsolved.sum());
+    }
+    return count;
+  }
+
+  /**
+   * Solves every puzzle of a packed file, and reports the throughput.
+   * <p>
+   * Puzzles that have no solution are copied to the output unchanged.
+   *
+   * @return the number of puzzles read
+   */
+  long run(PackedReader input, Writer output)
+      throws IOException, InterruptedException {
+    ExecutorService workers = Executors.newFixedThreadPool(this.threads);
+    ArrayDeque<Future<String>> pending = new ArrayDeque<>();
+    long start = System.nanoTime();
+
+    try {
+      for (long first = 0; first < input.getCount(); first += BLOCK) {
+        long from = first;
+        long to = Math.min(first + BLOCK, input.getCount());
+        pending.add(workers.submit(() -> this.solve(input, from, to)));
+        if (pending.size() >= this.threads * 2) {
+          write(pending.remove(), output);
+        }
+      }
+      while (!pending.isEmpty()) {
+        write(pending.remove(), output);
+      }
+      output.flush();
+    } finally {
+      workers.shutdownNow();
+    }
+
+    long count = input.getCount();
+    this.report(count, start);
+    if (this.unsolved.sum() > 0) {
+      logger.log(Level.WARNING, "{0} puzzles had no solution", this.unsolved.sum());
+    }
+    return count;
+  }
+
+  private void report(long count, long start) {
+    double seconds = (System.nanoTime() - start) / 1e9;
+    logger.log(Level.INFO, "Processed {0} puzzles in {1} s ({2} puzzles/s)",
+        new Object[]{count, String.format("%.3f", seconds),
+            String.format("%.0f", count / seconds)});
+    if (this.cache != null) {
+      logger.log(Level.INFO, "Cache: {0}", this.cache);
+    }
+  }
+
+  private boolean solve(Board board) {
+    return this.cache == null
+        ? Solver.forThread(this.solvers, board).solve()
+        : this.cache.solve(board);
+  }
+
+  private String solve(PackedReader input, long from, long to) {
+    StringBuilder lines = new StringBuilder();
+    Board board = new Board(input.getSize());
+    for (long i = from; i < to; i++) {
+      if (!this.solve(input.read(i, board))) {
+        this.unsolved.increment();
+      }
+      if (i > from) {
+        lines.append(System.lineSeparator());
+      }
+      lines.append(board.toLine());
+    }
+    return lines.toString();
+  }
+
+
+  private String solve(String line, long number) {
+    Board board;
+    try {
+      board = Board.parse(line);
+    } catch (IllegalArgumentException ex) {
+      logger.log(Level.WARNING, "Puzzle {0} is malformed: {1}",
+          new Object[]{number, ex.getMessage()});
+      this.unsolved.increment();
+      return line;
+    }
+
+    if (!this.solve(board)) {
+      this.unsolved.increment();
+      return line;
+    }
+    return board.toLine();
+  }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A puzzle of any size from 4x4 to 25x25, with square boxes.
+ * <p>
+ * Digits run from 1 to the size of the board and 0 marks a blank. As text,
+ * digits are written with the symbols 1-9 followed by A-P, so a 16x16 board
+ * uses 1-9 and A-G.
+ * <p>
+ * A board is not thread safe. Its {@link Snapshot}s are, so take one to share
+ * the contents with other threads.
+ *
+ * @author Matthew William Noel
+ */
+public final class Board {
+
+  public static final String SYMBOLS = "123456789ABCDEFGHIJKLMNOP";
+
+  /**
+   * Reads a board in any of the notations of {@link PuzzleParser}.
+   *
+   * @throws PuzzleFormatException if the text is not a puzzle
+   */
+  public static Board parse(CharSequence text) {
+    return new PuzzleParser(ByteBuffer.wrap(
+        text.toString().getBytes(StandardCharsets.ISO_8859_1))).parseBoard();
+  }
+
+  private byte[] cells;
+  private int filled;
+  /**
+   * Whether the cells belong to a snapshot as well, and must be copied before
+   * they are changed.
+   */
+  private boolean shared;
+  private final Topology topology;
+
+  /**
+   * Creates an empty board.
+   *
+   * @param size the side of the board: 4, 9, 16 or 25
+   */
+  public Board(int size) {
+    this.topology = Topology.ofSize(size);
+    this.cells = new byte[this.topology.cells];
+  }
+
+  public Board(Board other) {
+    this.topology = other.topology;
+    this.cells = other.cells.clone();
+    this.filled = other.filled;
+  }
+
+  /**
+   * @return the digit in the cell, or 0 if it is blank
+   */
+  public int get(int row, int column) {
+    return this.cells[this.index(row, column)];
+  }
+
+  public int getSize() {
+    return this.topology.size;
+  }
+
+  public boolean isComplete() {
+    return this.filled == this.cells.length;
+  }
+
+  /**
+   * @param value the digit, or 0 to blank the cell
+   */
+  public void set(int row, int column, int value) {
+    if (value < 0 || value > this.topology.size) {
+      throw new IllegalArgumentException(value + " is not a digit of a "
+          + this.topology.size + "x" + this.topology.size + " board");
+    }
+    this.set(this.index(row, column), value);
+  }
+
+  /**
+   * Copies every cell of a board of the same size.
+   */
+  public void load(Board other) {
+    if (other.topology != this.topology) {
+      throw new IllegalArgumentException("Boards must be the same size");
+    }
+    if (this.shared) {
+      this.cells = other.cells.clone();
+      this.shared = false;
+    } else {
+      System.arraycopy(other.cells, 0, this.cells, 0, this.cells.length);
+    }
+    this.filled = other.filled;
+  }
+
+  /**
+   * Blanks every cell.
+   */
+  public void reset() {
+    if (this.shared) {
+      this.cells = new byte[this.cells.length];
+      this.shared = false;
+    } else {
+      Arrays.fill(this.cells, (byte) 0);
+    }
+    this.filled = 0;
+  }
+
+  /**
+   * Goes back to the contents of a snapshot of a board of the same size,
+   * without copying anything until the board is next changed.
+   */
+  public void restore(Snapshot snapshot) {
+    if (snapshot.getTopology() != this.topology) {
+      throw new IllegalArgumentException("Boards must be the same size");
+    }
+    this.cells = snapshot.getCells();
+    this.filled = snapshot.getFilled();
+    this.shared = true;
+  }
+
+  /**
+   * @return the contents as they are now, which later changes to the board
+   *     leave alone
+   */
+  public Snapshot snapshot() {
+    this.shared = true;
+    return new Snapshot(this.topology, this.cells, this.filled);
+  }
+
+  /**
+   * @return the board on a single line, with '.' for blanks
+   */
+  public String toLine() {
+    StringBuilder builder = new StringBuilder(this.cells.length);
+    for (byte value : this.cells) {
+      builder.append(value == 0 ? '.' : SYMBOLS.charAt(value - 1));
+    }
+    return builder.toString();
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder(
+        this.cells.length + this.topology.size);
+    for (int cell = 0; cell < this.cells.length; cell++) {
+      byte value = this.cells[cell];
+      builder.append(value == 0 ? ' ' : SYMBOLS.charAt(value - 1));
+      if (this.topology.columnOf[cell] == this.topology.size - 1) {
+        builder.append("\n");
+      }
+    }
+    return builder.toString();
+  }
+
+  int get(int cell) {
+    return this.cells[cell];
+  }
+
+  Topology getTopology() {
+    return this.topology;
+  }
+
+  void set(int cell, int value) {
+    if (this.shared) {
+      this.cells = this.cells.clone();
+      this.shared = false;
+    }
+    if ((this.cells[cell] == 0) != (value == 0)) {
+      this.filled += value == 0 ? -1 : 1;
+    }
+    this.cells[cell] = (byte) value;
+  }
+
+  private int index(int row, int column) {
+    if (row < 0 || row >= this.topology.size || column < 0
+        || column >= this.topology.size) {
+      throw new IndexOutOfBoundsException("(" + row + ", " + column
+          + ") is outside a " + this.topology.size + "x"
+          + this.topology.size + " board");
+    }
+    return row * this.topology.size + column;
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+/**
+ * Claiming: when a digit's candidates within a row or column all lie in one
+ * box, it cannot appear anywhere else in that box.
+ *
+ * @author Matthew William Noel
+ */
+final class BoxLineReduction implements Strategy {
+
+  @Override
+  public int apply(Candidates candidates) {
+    Topology topology = candidates.getTopology();
+    int eliminated = 0;
+    for (int unit = 0; unit < 2 * topology.size; unit++) {
+      int[] cells = topology.units[unit];
+      int remaining = topology.all & ~candidates.getPlaced(unit);
+
+      while (remaining != 0) {
+        int bit = Integer.lowestOneBit(remaining);
+        remaining ^= bit;
+
+        int boxes = 0;
+        for (int cell : cells) {
+          if ((candidates.getMask(cell) & bit) != 0) {
+            boxes |= 1 << topology.boxOf[cell];
+          }
+        }
+        if (Integer.bitCount(boxes) != 1) {
+          continue;
+        }
+
+        int box = Integer.numberOfTrailingZeros(boxes);
+        for (int cell : topology.units[topology.boxUnit(box)]) {
+          int line = unit < topology.size
+              ? topology.rowOf[cell] : topology.columnUnit(topology.columnOf[cell]);
+          if (line != unit) {
+            eliminated += candidates.eliminate(cell, bit);
+          }
+        }
+      }
+    }
+    return eliminated;
+  }
+
+  @Override
+  public Difficulty getDifficulty() {
+    return Difficulty.MEDIUM;
+  }
+
+  @Override
+  public String getName() {
+    return "boxLineReduction";
+  }
+}
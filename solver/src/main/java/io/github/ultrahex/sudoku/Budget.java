@@ -0,0 +1,88 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.time.Duration;
+
+/**
+ * How much a solve may spend: a deadline, a number of search nodes, or both,
+ * and a way to call it off from another thread. See
+ * {@link Solver#solve(Budget)}.
+ * <p>
+ * The deadline runs from when the budget is made, so time spent waiting for
+ * a solver counts against it. A budget is meant for one solve, and once
+ * cancelled stays cancelled.
+ *
+ * @author Matthew William Noel
+ */
+public final class Budget {
+
+  /**
+   * @return a budget with no limits, which only {@link #cancel()} ends
+   */
+  public static Budget unlimited() {
+    return new Budget(null, 0);
+  }
+
+  private volatile boolean cancelled;
+  /**
+   * In {@link System#nanoTime()} terms; only meaningful if {@link #timed}.
+   */
+  private final long deadline;
+  private final long nodes;
+  private final boolean timed;
+
+  /**
+   * @param timeout how long the solve may take, or null for as long as it
+   *     needs
+   * @param nodes the most search nodes to visit, or 0 for any number
+   */
+  public Budget(Duration timeout, long nodes) {
+    if (nodes < 0) {
+      throw new IllegalArgumentException("The node limit must not be negative");
+    }
+    this.timed = timeout != null;
+    this.deadline = this.timed ? System.nanoTime() + timeout.toNanos() : 0;
+    this.nodes = nodes;
+  }
+
+  /**
+   * Stops the solve at its next check, which comes at the next search node
+   * or pass of deductions.
+   */
+  public void cancel() {
+    this.cancelled = true;
+  }
+
+  public boolean isCancelled() {
+    return this.cancelled;
+  }
+
+  /**
+   * @param nodes the search nodes visited so far
+   * @param checkClock whether to look at the clock as well, which costs more
+   *     than the rest
+   */
+  boolean isExceeded(long nodes, boolean checkClock) {
+    return this.cancelled
+        || (this.nodes > 0 && nodes > this.nodes)
+        || (checkClock && this.timed && System.nanoTime() - this.deadline > 0);
+  }
+}
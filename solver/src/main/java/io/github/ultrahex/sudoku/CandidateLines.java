@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+/**
+ * Pointing pairs and triples: when a digit's candidates within a box all lie
+ * on one row or column, it cannot appear on the rest of that line. Only boxes
+ * that changed since the last call are looked at.
+ *
+ * @author Matthew William Noel
+ */
+final class CandidateLines implements Strategy {
+
+  @Override
+  public int apply(Candidates candidates) {
+    Topology topology = candidates.getTopology();
+    int eliminated = 0;
+    int boxes = candidates.takeChangedBoxes();
+    while (boxes != 0) {
+      int box = Integer.numberOfTrailingZeros(boxes);
+      boxes &= boxes - 1;
+
+      int[] cells = topology.units[topology.boxUnit(box)];
+      int remaining = topology.all & ~candidates.getPlaced(topology.boxUnit(box));
+
+      while (remaining != 0) {
+        int bit = Integer.lowestOneBit(remaining);
+        remaining ^= bit;
+
+        int lineRows = 0;
+        int lineColumns = 0;
+        for (int cell : cells) {
+          if ((candidates.getMask(cell) & bit) != 0) {
+            lineRows |= 1 << topology.rowOf[cell];
+            lineColumns |= 1 << topology.columnOf[cell];
+          }
+        }
+
+        int[] line;
+        if (Integer.bitCount(lineRows) == 1) {
+          line = topology.units[Integer.numberOfTrailingZeros(lineRows)];
+        } else if (Integer.bitCount(lineColumns) == 1) {
+          line = topology.units[topology.columnUnit(
+              Integer.numberOfTrailingZeros(lineColumns))];
+        } else {
+          continue;
+        }
+        for (int cell : line) {
+          if (topology.boxOf[cell] != box) {
+            eliminated += candidates.eliminate(cell, bit);
+          }
+        }
+      }
+    }
+    return eliminated;
+  }
+
+  @Override
+  public Difficulty getDifficulty() {
+    return Difficulty.MEDIUM;
+  }
+
+  @Override
+  public String getName() {
+    return "candidateLines";
+  }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.util.Arrays;
+
+/**
+ * Candidate state of a puzzle, one bit mask per cell.
+ * <p>
+ * Bit {@code d} of a cell's mask is set while the digit with ordinal
+ * {@code d} may still be placed there. The digits already placed in every
+ * row, column and box are kept as masks as well. The number of filled cells
+ * and whether the state has become contradictory are kept up to date with
+ * every change, so neither needs a scan.
+ * <p>
+ * Every unit with a cell whose mask has changed is marked until the solver
+ * takes the marks, so it only looks again at the parts of the board that
+ * moved.
+ * <p>
+ * Not thread safe: candidates belong to one solver, and the parallel search
+ * gives each of its tasks a copy.
+ *
+ * @author Matthew William Noel
+ */
+final class Candidates {
+
+  private int changedBoxes;
+  /*
+   * One bit per unit, 64 units to a word.
+   */
+  private final long[] changedUnits;
+  private boolean contradiction;
+  private int filled;
+  private final int[] masks;
+  private final int[] placed;
+  /*
+   * Work space for the strategies, which are shared between solvers.
+   */
+  final int[] scratch;
+  final int[] scratch2;
+  private final Topology topology;
+  private final byte[] values;
+
+  /**
+   * Creates an empty board, with every unit marked as changed.
+   */
+  Candidates(Topology topology) {
+    this.topology = topology;
+    this.changedUnits = new long[topology.unitWords];
+    this.masks = new int[topology.cells];
+    this.placed = new int[topology.units.length];
+    this.values = new byte[topology.cells];
+    this.scratch = new int[topology.size];
+    this.scratch2 = new int[topology.size];
+    this.reset();
+  }
+
+  Candidates(Candidates other) {
+    this.topology = other.topology;
+    this.changedBoxes = other.changedBoxes;
+    this.changedUnits = other.changedUnits.clone();
+    this.contradiction = other.contradiction;
+    this.filled = other.filled;
+    this.masks = other.masks.clone();
+    this.placed = other.placed.clone();
+    this.values = other.values.clone();
+    this.scratch = new int[this.topology.size];
+    this.scratch2 = new int[this.topology.size];
+  }
+
+  /**
+   * Becomes a copy of the other candidates, which must be for the same
+   * topology, without allocating.
+   */
+  void copyFrom(Candidates other) {
+    this.changedBoxes = other.changedBoxes;
+    System.arraycopy(other.changedUnits, 0, this.changedUnits, 0,
+        this.changedUnits.length);
+    this.contradiction = other.contradiction;
+    this.filled = other.filled;
+    System.arraycopy(other.masks, 0, this.masks, 0, this.masks.length);
+    System.arraycopy(other.placed, 0, this.placed, 0, this.placed.length);
+    System.arraycopy(other.values, 0, this.values, 0, this.values.length);
+  }
+
+  /**
+   * Takes the state of one of the puzzles kept interleaved by a
+   * {@link LockstepSolver}, where every cell and unit has an entry for each of
+   * {@code stride} puzzles, with every unit marked as changed.
+   */
+  void copyFrom(int[] masks, byte[] values, int[] placed, int slot, int stride,
+      int filled) {
+    for (int cell = 0; cell < this.masks.length; cell++) {
+      this.masks[cell] = masks[cell * stride + slot];
+      this.values[cell] = values[cell * stride + slot];
+    }
+    for (int unit = 0; unit < this.placed.length; unit++) {
+      this.placed[unit] = placed[unit * stride + slot];
+      this.changedUnits[unit >>> 6] |= 1L << unit;
+    }
+    this.changedBoxes = this.topology.all;
+    this.contradiction = false;
+    this.filled = filled;
+  }
+
+  /**
+   * @return the number of candidates removed from the cell
+   */
+  int eliminate(int cell, int bits) {
+    int mask = this.masks[cell];
+    int removed = mask & bits;
+    if (removed == 0) {
+      return 0;
+    }
+    this.masks[cell] = mask & ~removed;
+    if (mask == removed) {
+      this.contradiction = true;
+    }
+    this.changed(cell);
+    return Integer.bitCount(removed);
+  }
+
+  int getMask(int cell) {
+    return this.masks[cell];
+  }
+
+  /**
+   * @return the digits already placed in the unit
+   */
+  int getPlaced(int unit) {
+    return this.placed[unit];
+  }
+
+  Topology getTopology() {
+    return this.topology;
+  }
+
+  /**
+   * @return the ordinal of the digit placed in the cell, or -1 if empty
+   */
+  int getValue(int cell) {
+    return this.values[cell] - 1;
+  }
+
+  boolean isComplete() {
+    return this.filled == this.topology.cells;
+  }
+
+  boolean isPlaced(int cell) {
+    return this.values[cell] != 0;
+  }
+
+  /**
+   * @return false if an empty cell has no candidates left, a digit was placed
+   *     twice in a unit, or {@link #markInvalid()} was called
+   */
+  boolean isValid() {
+    return !this.contradiction;
+  }
+
+  /**
+   * Records a contradiction found by looking at a whole unit, such as a
+   * missing digit with no cell left to go in.
+   */
+  void markInvalid() {
+    this.contradiction = true;
+  }
+
+  /**
+   * Empties the board again, with every unit marked as changed.
+   */
+  void reset() {
+    Topology topology = this.topology;
+    Arrays.fill(this.changedUnits, 0);
+    for (int unit = 0; unit < topology.units.length; unit++) {
+      this.changedUnits[unit >>> 6] |= 1L << unit;
+    }
+    this.changedBoxes = topology.all;
+    this.contradiction = false;
+    this.filled = 0;
+    Arrays.fill(this.masks, topology.all);
+    Arrays.fill(this.placed, 0);
+    Arrays.fill(this.values, (byte) 0);
+  }
+
+  int getChangedUnitWords() {
+    return this.changedUnits.length;
+  }
+
+  /**
+   * @return one bit for every box that changed since the last call
+   */
+  int takeChangedBoxes() {
+    int boxes = this.changedBoxes;
+    this.changedBoxes = 0;
+    return boxes;
+  }
+
+  /**
+   * @return the cell to guess at, as chosen by
+   *     {@link Kernel#mostConstrainedCell(int[])}
+   */
+  int mostConstrainedCell() {
+    return Kernel.INSTANCE.mostConstrainedCell(this.masks);
+  }
+
+  /**
+   * Places a digit and removes it from the candidates of every peer.
+   */
+  void place(int cell, int digit) {
+    Topology topology = this.topology;
+    int bit = 1 << digit;
+
+    this.values[cell] = (byte) (digit + 1);
+    this.masks[cell] = 0;
+    this.filled++;
+
+    this.placeInUnit(topology.rowOf[cell], bit);
+    this.placeInUnit(topology.columnUnit(topology.columnOf[cell]), bit);
+    this.placeInUnit(topology.boxUnit(topology.boxOf[cell]), bit);
+
+    // Marking every unit the peers touch up front is cheaper than marking
+    // them one peer at a time, and is rarely more than the peers needed.
+    int offset = cell * topology.unitWords;
+    for (int word = 0; word < topology.unitWords; word++) {
+      this.changedUnits[word] |= topology.affectedUnits[offset + word];
+    }
+    this.changedBoxes |= topology.affectedBoxes[cell];
+
+    for (int peer : topology.peers[cell]) {
+      int peerMask = this.masks[peer];
+      if ((peerMask & bit) != 0) {
+        this.masks[peer] = peerMask & ~bit;
+        if (peerMask == bit) {
+          this.contradiction = true;
+        }
+      }
+    }
+  }
+
+  /**
+   * @return one bit for every unit from {@code 64 * word} on that changed since
+   *     the last call
+   */
+  long takeChangedUnits(int word) {
+    long units = this.changedUnits[word];
+    this.changedUnits[word] = 0;
+    return units;
+  }
+
+  private void changed(int cell) {
+    Topology topology = this.topology;
+    int offset = cell * topology.unitWords;
+    for (int word = 0; word < topology.unitWords; word++) {
+      this.changedUnits[word] |= topology.unitBits[offset + word];
+    }
+    this.changedBoxes |= 1 << topology.boxOf[cell];
+  }
+
+  private void placeInUnit(int unit, int bit) {
+    if ((this.placed[unit] & bit) != 0) {
+      this.contradiction = true;
+    }
+    this.placed[unit] |= bit;
+  }
+}
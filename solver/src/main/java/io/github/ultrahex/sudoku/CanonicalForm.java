@@ -0,0 +1,440 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.util.Arrays;
+
+/**
+ * A puzzle rearranged into a standard form, so that puzzles which differ only
+ * by a symmetry of sudoku share one form. The symmetries are relabelling the
+ * digits, reordering the rows within a band and the bands themselves, the
+ * same for columns and stacks, and swapping rows with columns.
+ * <p>
+ * Rows, columns, bands, stacks and digits are each given a color, a hash of
+ * the colors of everything they touch, until the colors stop splitting them
+ * further; ties that are left are broken one at a time. The form is then the
+ * puzzle with everything sorted by color, in whichever orientation comes out
+ * smaller.
+ * <p>
+ * This is not a true canonical form. A tie is broken by singling out
+ * whichever member comes first in the puzzle as given, not by trying every
+ * member and keeping the smallest result. If the tied members are not really
+ * interchangeable, the same puzzle given in another order can get another
+ * form. Ties like that survive refinement mostly in highly symmetric puzzles.
+ * The error only goes one way: the form is the whole rearranged puzzle, so
+ * two puzzles that share it are always equivalent. A missed equivalence costs
+ * a cache miss and never gives a wrong answer. A form remembers how it was
+ * made, so anything worked out for it can be mapped back onto the puzzle.
+ *
+ * @author Matthew William Noel
+ */
+public final class CanonicalForm {
+
+  private static final long CHUTE = 0x9e3779b97f4a7c15L;
+  private static final long DIGIT = 0x165667b19e3779f9L;
+  private static final long LINE = 0xd6e8feb86659fd93L;
+  private static final long SINGLED_OUT = 0x27d4eb2f165667c5L;
+
+  public static CanonicalForm of(Board board) {
+    Topology topology = board.getTopology();
+    byte[] cells = new byte[topology.cells];
+    for (int cell = 0; cell < cells.length; cell++) {
+      cells[cell] = (byte) board.get(cell);
+    }
+    return of(topology, cells);
+  }
+
+  public static CanonicalForm of(Grid grid) {
+    byte[] cells = new byte[Coordinate.CELLS];
+    grid.forEachCell((coordinate, cell) -> {
+      Digit contents = cell.getContents();
+      cells[coordinate.getIndex()] = (byte) (contents == null ? 0 : contents.getValue());
+    });
+    return of(Coordinate.TOPOLOGY, cells);
+  }
+
+  private static CanonicalForm of(Topology topology, byte[] puzzle) {
+    Coloring coloring = new Coloring(topology, puzzle);
+    coloring.resolve();
+    CanonicalForm straight = coloring.toForm(false);
+    CanonicalForm transposed = coloring.toForm(true);
+    return Arrays.compare(straight.cells, transposed.cells) <= 0 ? straight : transposed;
+  }
+
+  /*
+   * The finalizer of MurmurHash3, over both values.
+   */
+  private static long mix(long a, long b) {
+    long h = a * 0xff51afd7ed558ccdL + b;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    return h ^ h >>> 33;
+  }
+
+  private final byte[] cells;
+  /**
+   * For every column of the form, the column of the puzzle it came from, or
+   * the row if transposed.
+   */
+  private final byte[] columns;
+  /**
+   * For every digit of the form, the digit of the puzzle it stands for.
+   */
+  private final byte[] digits;
+  private final int hash;
+  /**
+   * For every row of the form, the row of the puzzle it came from, or the
+   * column if transposed.
+   */
+  private final byte[] rows;
+  private final Topology topology;
+  private final boolean transposed;
+
+  private CanonicalForm(Topology topology, byte[] cells, byte[] rows,
+      byte[] columns, byte[] digits, boolean transposed) {
+    this.topology = topology;
+    this.cells = cells;
+    this.rows = rows;
+    this.columns = columns;
+    this.digits = digits;
+    this.transposed = transposed;
+    this.hash = 31 * topology.size + Arrays.hashCode(cells);
+  }
+
+  public int getSize() {
+    return this.topology.size;
+  }
+
+  /**
+   * @return the rearranged puzzle
+   */
+  public Board toBoard() {
+    Board board = new Board(this.topology.size);
+    for (int cell = 0; cell < this.cells.length; cell++) {
+      board.set(cell, this.cells[cell]);
+    }
+    return board;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof CanonicalForm)) {
+      return false;
+    }
+    CanonicalForm other = (CanonicalForm) obj;
+    return this.hash == other.hash && this.topology == other.topology
+        && Arrays.equals(this.cells, other.cells);
+  }
+
+  @Override
+  public int hashCode() {
+    return this.hash;
+  }
+
+  /**
+   * @return the rearranged puzzle on a single line, with '.' for blanks
+   */
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder(this.cells.length);
+    for (byte value : this.cells) {
+      builder.append(value == 0 ? '.' : Board.SYMBOLS.charAt(value - 1));
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Rearranges a board of the puzzle the same way as the puzzle, typically
+   * its solution.
+   *
+   * @return the cells of the board in the form
+   */
+  byte[] rearrange(Board board) {
+    byte[] labels = new byte[this.topology.size + 1];
+    for (int digit = 1; digit <= this.topology.size; digit++) {
+      labels[this.digits[digit]] = (byte) digit;
+    }
+    byte[] result = new byte[this.cells.length];
+    for (int cell = 0; cell < result.length; cell++) {
+      result[cell] = labels[board.get(this.cellOf(cell))];
+    }
+    return result;
+  }
+
+  /**
+   * Undoes {@link #rearrange(Board)}, writing cells of the form back onto a
+   * board of the puzzle.
+   */
+  void restore(byte[] cells, Board board) {
+    for (int cell = 0; cell < cells.length; cell++) {
+      board.set(this.cellOf(cell), this.digits[cells[cell]]);
+    }
+  }
+
+  /**
+   * @return the cell of the puzzle that a cell of the form came from
+   */
+  private int cellOf(int cell) {
+    int row = this.rows[cell / this.topology.size];
+    int column = this.columns[cell % this.topology.size];
+    return this.transposed
+        ? column * this.topology.size + row
+        : row * this.topology.size + column;
+  }
+
+  /**
+   * The colors of a puzzle. Rows and columns are colored alike, and so are
+   * bands and stacks, so that a transposed puzzle gets the same colors the
+   * other way round and one coloring serves both orientations.
+   */
+  private static final class Coloring {
+
+    /*
+     * Bands, then stacks.
+     */
+    private final long[] chutes;
+    private final int[] digitCounts;
+    private final long[] digitSums;
+    private final long[] digits;
+    /*
+     * The row, column and digit of every given, packed into one int each.
+     */
+    private final int[] givens;
+    private final long[] lineSums;
+    /*
+     * Rows, then columns.
+     */
+    private final long[] lines;
+    private final byte[] puzzle;
+    private final int root;
+    private final int size;
+    private final Topology topology;
+
+    Coloring(Topology topology, byte[] puzzle) {
+      this.topology = topology;
+      this.puzzle = puzzle;
+      this.size = topology.size;
+      this.root = topology.root;
+      this.lines = new long[2 * this.size];
+      this.chutes = new long[2 * this.root];
+      this.digits = new long[this.size];
+      this.lineSums = new long[2 * this.size];
+      this.digitSums = new long[this.size];
+      this.digitCounts = new int[this.size];
+      Arrays.fill(this.lines, LINE);
+      Arrays.fill(this.chutes, CHUTE);
+      Arrays.fill(this.digits, DIGIT);
+
+      int count = 0;
+      int[] givens = new int[topology.cells];
+      for (int cell = 0; cell < puzzle.length; cell++) {
+        if (puzzle[cell] != 0) {
+          int digit = puzzle[cell] - 1;
+          givens[count++] = (topology.rowOf[cell] << 16)
+              | ((this.size + topology.columnOf[cell]) << 8) | digit;
+          this.digitCounts[digit]++;
+        }
+      }
+      this.givens = Arrays.copyOf(givens, count);
+    }
+
+    /**
+     * Colors everything, and then singles out one line or digit at a time
+     * until no two are left with the same color. Whatever is still tied is
+     * most likely interchangeable, in which case it makes no difference which
+     * one is singled out.
+     */
+    void resolve() {
+      this.refine();
+      int tied;
+      while ((tied = tied(this.lines, null)) >= 0) {
+        this.lines[tied] = mix(this.lines[tied], SINGLED_OUT);
+        this.refine();
+      }
+      while ((tied = tied(this.digits, this.digitCounts)) >= 0) {
+        this.digits[tied] = mix(this.digits[tied], SINGLED_OUT);
+        this.refine();
+      }
+    }
+
+    /**
+     * @param transposed whether the columns of the puzzle become the rows of
+     *     the form
+     */
+    CanonicalForm toForm(boolean transposed) {
+      int rows = transposed ? this.size : 0;
+      int columns = transposed ? 0 : this.size;
+      byte[] rowOrder = this.order(rows);
+      byte[] columnOrder = this.order(columns);
+      byte[] labels = new byte[this.size + 1];
+      byte[] digitOrder = new byte[this.size + 1];
+      int next = 1;
+      for (int pass = 0; pass < 2; pass++) {
+        // Digits that are given come first, by color, then the rest.
+        for (int digit : sorted(this.digits, 0, this.size)) {
+          if ((this.digitCounts[digit] > 0) == (pass == 0)) {
+            labels[digit + 1] = (byte) next;
+            digitOrder[next++] = (byte) (digit + 1);
+          }
+        }
+      }
+
+      byte[] cells = new byte[this.topology.cells];
+      for (int row = 0; row < this.size; row++) {
+        for (int column = 0; column < this.size; column++) {
+          int cell = transposed
+              ? columnOrder[column] * this.size + rowOrder[row]
+              : rowOrder[row] * this.size + columnOrder[column];
+          cells[row * this.size + column] = labels[this.puzzle[cell]];
+        }
+      }
+      return new CanonicalForm(this.topology, cells, rowOrder, columnOrder,
+          digitOrder, transposed);
+    }
+
+    /**
+     * @return the number of distinct colors
+     */
+    private static int classes(long[] colors) {
+      int classes = 0;
+      for (int i = 0; i < colors.length; i++) {
+        int j = 0;
+        while (j < i && colors[j] != colors[i]) {
+          j++;
+        }
+        if (j == i) {
+          classes++;
+        }
+      }
+      return classes;
+    }
+
+    /**
+     * @return the indices from {@code from} to {@code to}, sorted by color and
+     *     then by index
+     */
+    private static int[] sorted(long[] colors, int from, int to) {
+      int[] indices = new int[to - from];
+      for (int i = 0; i < indices.length; i++) {
+        int index = from + i;
+        int j = i;
+        for (; j > 0 && colors[indices[j - 1]] > colors[index]; j--) {
+          indices[j] = indices[j - 1];
+        }
+        indices[j] = index;
+      }
+      return indices;
+    }
+
+    /**
+     * Finds the tie to break next: the one with the lowest color, so that the
+     * choice does not depend on the order the puzzle came in.
+     *
+     * @param counts if not null, entries with a count of 0 are left tied
+     * @return the first index with that color, or -1 if every color is
+     *     distinct
+     */
+    private static int tied(long[] colors, int[] counts) {
+      int best = -1;
+      for (int i = 0; i < colors.length; i++) {
+        if ((counts != null && counts[i] == 0)
+            || (best >= 0 && colors[i] >= colors[best])) {
+          continue;
+        }
+        for (int j = i + 1; j < colors.length; j++) {
+          if (colors[j] == colors[i] && (counts == null || counts[j] > 0)) {
+            best = i;
+            break;
+          }
+        }
+      }
+      return best;
+    }
+
+    /**
+     * @param first the first line, 0 for rows or the size for columns
+     * @return the lines sorted by the color of their band or stack, and then by
+     *     their own, counted from the first
+     */
+    private byte[] order(int first) {
+      int chutes = first / this.root;
+      byte[] order = new byte[this.size];
+      int next = 0;
+      for (int chute : sorted(this.chutes, chutes, chutes + this.root)) {
+        for (int line : sorted(this.lines, chute * this.root, (chute + 1) * this.root)) {
+          order[next++] = (byte) (line - first);
+        }
+      }
+      return order;
+    }
+
+    /**
+     * Recolors everything from its neighbours until the number of colors stops
+     * growing.
+     */
+    private void refine() {
+      int before = this.classes();
+      for (int round = 0; round < 3 * this.size; round++) {
+        this.round();
+        int after = this.classes();
+        if (after == before) {
+          return;
+        }
+        before = after;
+      }
+    }
+
+    private int classes() {
+      return classes(this.lines) + classes(this.chutes) + classes(this.digits);
+    }
+
+    private void round() {
+      Arrays.fill(this.lineSums, 0);
+      Arrays.fill(this.digitSums, 0);
+      // Sums, so that the order of the givens does not matter.
+      for (int given : this.givens) {
+        int row = given >>> 16;
+        int column = (given >>> 8) & 0xff;
+        int digit = given & 0xff;
+        long rowColor = this.lines[row];
+        long columnColor = this.lines[column];
+        this.lineSums[row] += mix(columnColor, this.digits[digit]);
+        this.lineSums[column] += mix(rowColor, this.digits[digit]);
+        // Either way round, for the coloring to survive transposing.
+        this.digitSums[digit] += mix(rowColor + columnColor, rowColor ^ columnColor);
+      }
+
+      for (int chute = 0; chute < this.chutes.length; chute++) {
+        long sum = 0;
+        for (int line = chute * this.root; line < (chute + 1) * this.root; line++) {
+          sum += mix(this.lines[line], CHUTE);
+          this.lines[line] = mix(mix(this.lines[line], this.chutes[chute]), this.lineSums[line]);
+        }
+        this.chutes[chute] = mix(this.chutes[chute], sum);
+      }
+      for (int digit = 0; digit < this.size; digit++) {
+        this.digits[digit] = mix(this.digits[digit], this.digitSums[digit]);
+      }
+    }
+  }
+}
@@ -28,6 +28,7 @@ public final class Cell implements Cloneable {
 
   private Digit contents;
   private final Coordinate coordinate;
+  private Grid grid;
 
   Cell(Coordinate coordinate, Digit contents) {
     this.coordinate = coordinate;
@@ -35,12 +36,25 @@ public final class Cell implements Cloneable {
   }
 
   Cell(Coordinate coordinate) {
-    this(coordinate, null);
+    this(coordinate, (Digit) null);
   }
 
+  /**
+   * A cell that tells its grid whenever it is filled or emptied.
+   */
+  Cell(Coordinate coordinate, Grid grid) {
+    this(coordinate);
+    this.grid = grid;
+  }
+
+  /**
+   * The clone does not belong to any grid.
+   */
   @Override
   public Object clone() throws CloneNotSupportedException {
-    return super.clone();
+    Cell clone = (Cell) super.clone();
+    clone.grid = null;
+    return clone;
   }
 
   @Override
@@ -54,6 +68,9 @@ public final class Cell implements Cloneable {
   }
 
   public void setContents(Digit contents) {
+    if (this.grid != null && (this.contents == null) != (contents == null)) {
+      this.grid.countFilled(contents == null ? -1 : 1);
+    }
     this.contents = contents;
   }
 
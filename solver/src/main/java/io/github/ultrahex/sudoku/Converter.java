@@ -0,0 +1,99 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+
+/**
+ * Converts between the text format, one puzzle per line, and the packed
+ * format of {@link PackedReader}.
+ *
+ * @author Matthew William Noel
+ */
+final class Converter {
+
+  /**
+   * Packs every puzzle of the input. All of them must be the same size.
+   *
+   * @param solve whether to solve every puzzle and store its solution too
+   * @return the number of puzzles written
+   * @throws IllegalArgumentException if a line is not a puzzle, or with
+   *     solving, has no solution
+   */
+  static long pack(BufferedReader input, Path output, boolean solve)
+      throws IOException {
+    PackedWriter writer = null;
+    try {
+      String line;
+      long number = 0;
+      while ((line = input.readLine()) != null) {
+        line = line.trim();
+        if (line.isEmpty()) {
+          continue;
+        }
+        number++;
+        Board puzzle = Board.parse(line);
+        if (writer == null) {
+          writer = new PackedWriter(output, puzzle.getSize(), solve);
+        }
+        if (!solve) {
+          writer.write(puzzle);
+          continue;
+        }
+        Board solution = new Board(puzzle);
+        if (!new Solver(solution).solve()) {
+          throw new IllegalArgumentException("Puzzle " + number + " has no solution");
+        }
+        writer.write(puzzle, solution);
+      }
+      if (writer == null) {
+        throw new IllegalArgumentException("There are no puzzles to pack");
+      }
+      return writer.getCount();
+    } finally {
+      if (writer != null) {
+        writer.close();
+      }
+    }
+  }
+
+  /**
+   * Writes every puzzle of the input, or its solution, one per line.
+   *
+   * @return the number of puzzles written
+   */
+  static long unpack(PackedReader input, Writer output, boolean solutions)
+      throws IOException {
+    Board board = new Board(input.getSize());
+    for (long i = 0; i < input.getCount(); i++) {
+      output.write((solutions ? input.readSolution(i, board) : input.read(i, board))
+          .toLine());
+      output.write(System.lineSeparator());
+    }
+    output.flush();
+    return input.getCount();
+  }
+
+  private Converter() {
+  }
+}
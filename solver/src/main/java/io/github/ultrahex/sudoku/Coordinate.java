@@ -32,13 +32,36 @@ public final class Coordinate {
 
   public static final ArrayList<Coordinate> COORDINATES;
 
+  static final int SIZE = Digit.COUNT;
+  static final int CELLS = SIZE * SIZE;
+
+  /*
+   * Cells are indexed row major, a * SIZE + b. These are the tables of the 9x9
+   * Topology, see there for how units are numbered.
+   */
+  static final Topology TOPOLOGY = Topology.ofSize(SIZE);
+  static final int[] BOX_OF = TOPOLOGY.boxOf;
+  static final int[] COLUMN_OF = TOPOLOGY.columnOf;
+  static final int[][] PEERS = TOPOLOGY.peers;
+  static final int[] ROW_OF = TOPOLOGY.rowOf;
+  static final int[][] UNITS = TOPOLOGY.units;
+
+  private static final Coordinate[] BOX_COORDINATES = new Coordinate[CELLS];
+
   static {
-    COORDINATES = new ArrayList<>(81);
-    for (Digit a : Digit.values()) {
-      for (Digit b : Digit.values()) {
+    COORDINATES = new ArrayList<>(CELLS);
+    for (Digit a : Digit.DIGITS) {
+      for (Digit b : Digit.DIGITS) {
         COORDINATES.add(new Coordinate(a, b));
       }
     }
+
+    for (int box = 0; box < SIZE; box++) {
+      for (int number = 0; number < SIZE; number++) {
+        BOX_COORDINATES[UNITS[TOPOLOGY.boxUnit(box)][number]] =
+            COORDINATES.get(box * SIZE + number);
+      }
+    }
   }
 
   /*
@@ -57,45 +80,43 @@ public final class Coordinate {
    * 4 5 6<|4 5 6|
    * 7 8 9 \7 8 9/
    */
-  // Speciosa mathematica. Math is beautiful.
   public static Digit getBoxNumber(Digit row, Digit column) {
-    int root = (int) Math.sqrt(Digit.values().length);
-    int coarse = root * (row.ordinal() / root);
-    int fine = column.ordinal() / root;
-    return Digit.values()[coarse + fine];
+    return Digit.fromOrdinal(BOX_OF[row.ordinal() * SIZE + column.ordinal()]);
   }
 
   public static Digit getColumnFromBoxAndNumber(Digit box, Digit number) {
-    int root = (int) Math.sqrt(Digit.values().length);
-    int coarse = root * (box.ordinal() % root);
-    int fine = number.ordinal() % root;
-    return Digit.values()[coarse + fine];
+    return Digit.fromOrdinal(
+        COLUMN_OF[UNITS[TOPOLOGY.boxUnit(box.ordinal())][number.ordinal()]]);
   }
 
   public static Digit getNumberInBox(Digit row, Digit column) {
-    int root = (int) Math.sqrt(Digit.values().length);
-    int coarse = root * (row.ordinal() % root);
-    int fine = column.ordinal() % root;
-    return Digit.values()[coarse + fine];
+    return BOX_COORDINATES[row.ordinal() * SIZE + column.ordinal()].getB();
   }
 
   public static Digit getRowFromBoxAndNumber(Digit box, Digit number) {
-    int root = (int) Math.sqrt(Digit.values().length);
-    int coarse = root * (box.ordinal() / root);
-    int fine = number.ordinal() / root;
-    return Digit.values()[coarse + fine];
+    return Digit.fromOrdinal(
+        ROW_OF[UNITS[TOPOLOGY.boxUnit(box.ordinal())][number.ordinal()]]);
   }
 
   public static Coordinate valueOf(Digit a, Digit b) {
-    return COORDINATES.get(COORDINATES.indexOf(new Coordinate(a, b)));
+    return COORDINATES.get(a.ordinal() * SIZE + b.ordinal());
+  }
+
+  /**
+   * @param index the row major index of the cell, from 0 to 80
+   */
+  public static Coordinate valueOf(int index) {
+    return COORDINATES.get(index);
   }
 
   private final Digit a;
   private final Digit b;
+  private final int index;
 
   private Coordinate(Digit a, Digit b) {
     this.a = a;
     this.b = b;
+    this.index = a.ordinal() * SIZE + b.ordinal();
   }
 
   @Override
@@ -118,6 +139,13 @@ public final class Coordinate {
     return this.b;
   }
 
+  /**
+   * @return the row major index of the cell, from 0 to 80
+   */
+  public int getIndex() {
+    return this.index;
+  }
+
   @Override
   public int hashCode() {
     int hash = 3;
@@ -127,7 +155,6 @@ public final class Coordinate {
   }
 
   public Coordinate toBoxCoordinate() {
-    return Coordinate.valueOf(getBoxNumber(this.a, this.b),
-        getNumberInBox(this.a, this.b));
+    return BOX_COORDINATES[this.index];
   }
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+/**
+ * How hard a puzzle is, by the hardest deduction it takes to solve.
+ *
+ * @author Matthew William Noel
+ */
+public enum Difficulty {
+
+  /**
+   * Naked and hidden singles are enough.
+   */
+  EASY,
+  /**
+   * Needs pointing or claiming candidates as well.
+   */
+  MEDIUM,
+  /**
+   * Needs subsets, X-Wings or Swordfish as well.
+   */
+  HARD,
+  /**
+   * Cannot be solved without guessing.
+   */
+  EXPERT
+}
@@ -19,6 +19,8 @@
 
 package io.github.ultrahex.sudoku;
 
+import java.util.List;
+
 /**
  * @author Matthew William Noel
  */
@@ -34,14 +36,36 @@ public enum Digit {
   EIGHT(8),
   NINE(9);
 
+  private static final Digit[] VALUES = values();
+
+  public static final int COUNT = VALUES.length;
+
+  /**
+   * Every digit in order. Unlike {@code values()}, this does not copy.
+   */
+  public static final List<Digit> DIGITS = List.of(VALUES);
+
+  private final int bit;
   private final int value;
 
   Digit(int value) {
     this.value = value;
+    this.bit = 1 << (value - 1);
+  }
+
+  public static Digit fromOrdinal(int ordinal) {
+    return VALUES[ordinal];
   }
 
   public static Digit valueOf(int i) {
-    return Digit.values()[i - 1];
+    return VALUES[i - 1];
+  }
+
+  /**
+   * @return the candidate mask bit of this digit, {@code 1 << ordinal()}
+   */
+  public int getBit() {
+    return this.bit;
   }
 
   public int getValue() {
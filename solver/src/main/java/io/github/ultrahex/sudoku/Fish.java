@@ -0,0 +1,124 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+/**
+ * X-Wing, Swordfish and Jellyfish: when a digit's candidates in some rows all
+ * fall within as many columns, one of those rows supplies the digit to each
+ * of the columns, so it cannot appear anywhere else in them. The same holds
+ * with rows and columns swapped.
+ *
+ * @author Matthew William Noel
+ */
+final class Fish implements Strategy {
+
+  private static final String[] NAMES = {"xWing", "swordfish", "jellyfish"};
+
+  private final int size;
+
+  /**
+   * @param size the number of rows or columns in the pattern, from 2 to 4
+   */
+  Fish(int size) {
+    if (size < 2 || size > 4) {
+      throw new IllegalArgumentException("Fish span 2 to 4 lines");
+    }
+    this.size = size;
+  }
+
+  @Override
+  public int apply(Candidates candidates) {
+    Topology topology = candidates.getTopology();
+    int[] lines = candidates.scratch;
+    int[] positions = candidates.scratch2;
+    int eliminated = 0;
+
+    for (int digit = 0; digit < topology.size; digit++) {
+      eliminated += this.apply(candidates, 1 << digit, 0, topology.size, lines, positions);
+      eliminated += this.apply(candidates, 1 << digit, topology.size, 0, lines, positions);
+    }
+    return eliminated;
+  }
+
+  @Override
+  public Difficulty getDifficulty() {
+    return Difficulty.HARD;
+  }
+
+  @Override
+  public String getName() {
+    return NAMES[this.size - 2];
+  }
+
+  /*
+   * Position i of a row is column i, and position i of a column is row i, so
+   * the same search works both ways round.
+   */
+  private int apply(Candidates candidates, int bit, int base, int cover,
+      int[] lines, int[] positions) {
+    Topology topology = candidates.getTopology();
+    int count = 0;
+    for (int line = 0; line < topology.size; line++) {
+      if ((candidates.getPlaced(base + line) & bit) != 0) {
+        continue;
+      }
+      int[] cells = topology.units[base + line];
+      int where = 0;
+      for (int i = 0; i < cells.length; i++) {
+        if ((candidates.getMask(cells[i]) & bit) != 0) {
+          where |= 1 << i;
+        }
+      }
+      int places = Integer.bitCount(where);
+      if (places >= 2 && places <= this.size) {
+        lines[count] = line;
+        positions[count++] = where;
+      }
+    }
+    if (count < this.size) {
+      return 0;
+    }
+
+    int eliminated = 0;
+    for (int combination = (1 << this.size) - 1; combination < 1 << count;
+        combination = Strategy.nextCombination(combination)) {
+      int members = 0;
+      int where = 0;
+      for (int rest = combination; rest != 0; rest &= rest - 1) {
+        int j = Integer.numberOfTrailingZeros(rest);
+        members |= 1 << lines[j];
+        where |= positions[j];
+      }
+      if (Integer.bitCount(where) != this.size) {
+        continue;
+      }
+
+      for (int rest = where; rest != 0; rest &= rest - 1) {
+        int[] cells = topology.units[cover + Integer.numberOfTrailingZeros(rest)];
+        for (int i = 0; i < cells.length; i++) {
+          if ((members & (1 << i)) == 0) {
+            eliminated += candidates.eliminate(cells[i], bit);
+          }
+        }
+      }
+    }
+    return eliminated;
+  }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Makes puzzles with exactly one solution.
+ * <p>
+ * A random full board is solved out from random diagonal boxes, which never
+ * constrain each other, and clues are then taken away in random order for as
+ * long as the solution stays unique and the puzzle no harder than asked for.
+ * <p>
+ * A puzzle that comes out easier than asked for is thrown away and another
+ * started, up to {@value #MAX_ATTEMPTS} times. Not every difficulty can be
+ * reached at every size: small boards in particular may never need more than
+ * singles, so a generator for those gives up rather than search forever.
+ *
+ * @author Matthew William Noel
+ */
+public final class Generator {
+
+  /**
+   * Full boards tried for each puzzle before giving up. A 9x9 hard puzzle,
+   * the rarest, takes about ten on average.
+   */
+  public static final int MAX_ATTEMPTS = 1000;
+
+  private static final int IN_FLIGHT_PER_THREAD = 4;
+  private static final Logger logger = Logger.getLogger(Generator.class.getName());
+
+  private final Difficulty difficulty;
+  private final int size;
+  /*
+   * One per thread, reloaded for every board it checks, since the generator
+   * solves many times for every puzzle it makes.
+   */
+  private final ThreadLocal<Solver> solvers = new ThreadLocal<>();
+
+  /**
+   * @param size the side of the board, a square from 4 to 25
+   * @param difficulty the exact difficulty wanted, or null for any
+   */
+  public Generator(int size, Difficulty difficulty) {
+    Topology.ofSize(size);
+    this.difficulty = difficulty;
+    this.size = size;
+  }
+
+  /**
+   * @return a puzzle with a unique solution, from which no clue can be taken
+   *     without losing that or making it harder than asked for
+   * @throws IllegalStateException if none of the difficulty asked for came
+   *     out of {@value #MAX_ATTEMPTS} attempts
+   */
+  public Board generate(Random random) {
+    for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+      Board puzzle = this.randomSolution(random);
+      Topology topology = puzzle.getTopology();
+
+      int[] order = new int[topology.cells];
+      for (int cell = 0; cell < order.length; cell++) {
+        int other = random.nextInt(cell + 1);
+        order[cell] = order[other];
+        order[other] = cell;
+      }
+
+      Difficulty rating = Difficulty.EASY;
+      for (int cell : order) {
+        int value = puzzle.get(cell);
+        puzzle.set(cell, 0);
+        Difficulty rated = this.rate(puzzle);
+        if (rated == null) {
+          puzzle.set(cell, value);
+        } else {
+          rating = rated;
+        }
+      }
+
+      if (this.difficulty == null || rating == this.difficulty) {
+        return puzzle;
+      }
+    }
+    throw new IllegalStateException("No " + this.difficulty.name().toLowerCase(Locale.ROOT)
+        + " " + this.size + "x" + this.size + " puzzle in " + MAX_ATTEMPTS + " attempts");
+  }
+
+  /**
+   * Generates puzzles on a pool of threads, each with its own random numbers,
+   * and writes them one per line as they are finished.
+   *
+   * @return the number of puzzles written
+   * @throws IllegalStateException if the difficulty could not be reached
+   */
+  long run(long count, int threads, Writer output)
+      throws IOException, InterruptedException {
+    if (threads < 1) {
+      throw new IllegalArgumentException("At least one thread is required");
+    }
+    ExecutorService workers = Executors.newFixedThreadPool(threads);
+    CompletionService<Board> results = new ExecutorCompletionService<>(workers);
+    long submitted = 0;
+    long start = System.nanoTime();
+
+    try {
+      for (; submitted < count && submitted < threads * IN_FLIGHT_PER_THREAD; submitted++) {
+        results.submit(() -> this.generate(ThreadLocalRandom.current()));
+      }
+      for (long written = 0; written < count; written++) {
+        try {
+          output.write(results.take().get().toLine());
+          output.write(System.lineSeparator());
+        } catch (ExecutionException ex) {
+          if (ex.getCause() instanceof IllegalStateException) {
+            throw (IllegalStateException) ex.getCause();
+          }
+          throw new IllegalStateException(ex.getCause());
+        }
+        if (submitted < count) {
+          results.submit(() -> this.generate(ThreadLocalRandom.current()));
+          submitted++;
+        }
+      }
+      output.flush();
+    } finally {
+      workers.shutdownNow();
+    }
+
+    double seconds = (System.nanoTime() - start) / 1e9;
+    logger.log(Level.INFO, "Generated {0} puzzles in {1} s ({2} puzzles/s)",
+        new Object[]{count, String.format("%.3f", seconds),
+            String.format("%.1f", count / seconds)});
+    return count;
+  }
+
+  private Board randomSolution(Random random) {
+    while (true) {
+      Board board = new Board(this.size);
+      Topology topology = board.getTopology();
+      for (int box = 0; box < this.size; box += topology.root + 1) {
+        int[] cells = topology.units[topology.boxUnit(box)];
+        for (int i = 0; i < cells.length; i++) {
+          int other = random.nextInt(i + 1);
+          board.set(cells[i], board.get(cells[other]));
+          board.set(cells[other], i + 1);
+        }
+      }
+      if (Solver.forThread(this.solvers, board).solve()) {
+        return board;
+      }
+    }
+  }
+
+  /**
+   * @return how hard the puzzle is, or null if it has more than one solution
+   *     or is harder than wanted
+   */
+  private Difficulty rate(Board puzzle) {
+    Solver solver = Solver.forThread(this.solvers, puzzle);
+    Difficulty rating = solver.rate();
+    if (this.difficulty != null && rating.compareTo(this.difficulty) > 0) {
+      return null;
+    }
+    // Deductions never lose a solution, so solving without a guess proves
+    // the solution unique.
+    if (rating == Difficulty.EXPERT && !solver.hasUniqueSolution()) {
+      return null;
+    }
+    return rating;
+  }
+
+}
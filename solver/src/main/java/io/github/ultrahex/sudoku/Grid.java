@@ -0,0 +1,189 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.util.function.BiConsumer;
+
+/**
+ * A 9x9 puzzle of {@link Cell}s, with its rows, columns and boxes.
+ * <p>
+ * The cells are held by index and the groups are views of them through the
+ * unit tables of the shared {@link Topology}, so a grid allocates its cells and
+ * a few small wrappers and nothing else. A grid, like the {@link Board} and
+ * {@link Solver} that work on it, is not thread safe: give each thread its own,
+ * or hand one over through something that publishes it safely, such as a
+ * queue or a future.
+ *
+ * @author Matthew William Noel
+ */
+public final class Grid {
+
+  private final SuperGroup boxes;
+  private final Cell[] cells = new Cell[Coordinate.CELLS];
+  private final SuperGroup columns;
+  private int filled;
+  private final SuperGroup rows;
+
+  public Grid() {
+    for (int i = 0; i < Coordinate.CELLS; i++) {
+      this.cells[i] = new Cell(Coordinate.valueOf(i), this);
+    }
+
+    Group[] protoBoxes = new Group[Digit.COUNT];
+    Group[] protoColumns = new Group[Digit.COUNT];
+    Group[] protoRows = new Group[Digit.COUNT];
+
+    for (int i = 0; i < Digit.COUNT; i++) {
+      protoRows[i] = new Group(this.cells, Coordinate.UNITS[i]);
+      protoColumns[i] = new Group(this.cells, Coordinate.UNITS[Digit.COUNT + i]);
+      protoBoxes[i] = new Group(this.cells, Coordinate.UNITS[2 * Digit.COUNT + i]);
+    }
+    this.boxes = new SuperGroup(protoBoxes);
+    this.columns = new SuperGroup(protoColumns);
+    this.rows = new SuperGroup(protoRows);
+  }
+
+  public Grid(Digit[][] cells) {
+    this();
+    this.load(cells);
+  }
+
+  public void forEachBox(BiConsumer<? super Digit, ? super Group> action) {
+    this.boxes.forEach(action);
+  }
+
+  public void forEachCell(BiConsumer<? super Coordinate, ? super Cell> action) {
+    for (int i = 0; i < Coordinate.CELLS; i++) {
+      action.accept(Coordinate.valueOf(i), this.cells[i]);
+    }
+  }
+
+  public void forEachCellInBox(Digit box, BiConsumer<? super Digit, ? super Cell> action) {
+    this.boxes.getGroup(box).forEach(action);
+  }
+
+  public void forEachCellInColumn(Digit column, BiConsumer<? super Digit, ? super Cell> action) {
+    this.columns.getGroup(column).forEach(action);
+  }
+
+  public void forEachCellInRow(Digit row, BiConsumer<? super Digit, ? super Cell> action) {
+    this.rows.getGroup(row).forEach(action);
+  }
+
+  public void forEachColumn(BiConsumer<? super Digit, ? super Group> action) {
+    this.columns.forEach(action);
+  }
+
+  public void forEachRow(BiConsumer<? super Digit, ? super Group> action) {
+    this.rows.forEach(action);
+  }
+
+  /**
+   * Replaces the contents of every cell, so one grid can hold puzzle after
+   * puzzle.
+   *
+   * @param cells the rows of the puzzle, with null for blanks
+   */
+  public void load(Digit[][] cells) {
+    if (cells.length != Digit.COUNT) {
+      throw new IllegalArgumentException("Incorrect grid size");
+    }
+    for (Digit[] row : cells) {
+      if (row.length != Digit.COUNT) {
+        throw new IllegalArgumentException("Incorrect grid size");
+      }
+    }
+
+    for (int i = 0; i < cells.length; i++) {
+      for (int j = 0; j < cells[i].length; j++) {
+        this.setCell(Coordinate.valueOf(i * cells.length + j), cells[i][j]);
+      }
+    }
+  }
+
+  /**
+   * Empties every cell.
+   */
+  public void reset() {
+    this.setAll(null);
+  }
+
+  /**
+   * Goes back to the contents of a snapshot of a 9x9 board.
+   */
+  public void restore(Snapshot snapshot) {
+    if (snapshot.getTopology() != Coordinate.TOPOLOGY) {
+      throw new IllegalArgumentException("Incorrect grid size");
+    }
+    for (int i = 0; i < Coordinate.CELLS; i++) {
+      int value = snapshot.get(i);
+      this.cells[i].setContents(value == 0 ? null : Digit.valueOf(value));
+    }
+  }
+
+  /**
+   * @return the contents as they are now, a byte per cell
+   */
+  public Snapshot snapshot() {
+    byte[] values = new byte[Coordinate.CELLS];
+    for (int i = 0; i < Coordinate.CELLS; i++) {
+      Digit contents = this.cells[i].getContents();
+      values[i] = (byte) (contents == null ? 0 : contents.getValue());
+    }
+    return new Snapshot(Coordinate.TOPOLOGY, values, this.filled);
+  }
+
+  public void setAll(Digit contents) {
+    for (Cell cell : this.cells) {
+      cell.setContents(contents);
+    }
+  }
+
+  /**
+   * @return true if every cell is filled, without looking at any of them
+   */
+  public boolean isComplete() {
+    return this.filled == Coordinate.CELLS;
+  }
+
+  public Cell getCell(Coordinate coor) {
+    return this.cells[coor.getIndex()];
+  }
+
+  public void setCell(Coordinate coordinate, Digit digit) {
+    this.cells[coordinate.getIndex()].setContents(digit);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    for (Coordinate coord : Coordinate.COORDINATES) {
+      builder.append(this.cells[coord.getIndex()]);
+      if (coord.getB().ordinal() == Digit.COUNT - 1) {
+        builder.append("\n");
+      }
+    }
+    return builder.toString();
+  }
+
+  void countFilled(int change) {
+    this.filled += change;
+  }
+}
@@ -24,21 +24,28 @@ import java.util.Objects;
 import java.util.function.BiConsumer;
 
 /**
+ * One row, column or box of a {@link Grid}: a view of the grid's cells
+ * through the unit's row of the shared {@link Topology}, so a grid builds no
+ * tables of its own.
+ *
  * @author Matthew William Noel
  */
 public final class Group {
 
-  private final LinkedHashMap<Digit, Cell> cells =
-      new LinkedHashMap<>(Digit.values().length);
+  private final Cell[] cells;
+  private final int[] unit;
 
-  Group(Cell[] cells) {
-    if (cells.length != Digit.values().length) {
+  /**
+   * @param cells every cell of the grid, by index
+   * @param unit the indices of the cells in this group, in order
+   */
+  Group(Cell[] cells, int[] unit) {
+    if (unit.length != Digit.COUNT) {
       throw new IllegalArgumentException("Groups must contain exactly "
-          + Digit.values().length + " Cells");
-    }
-    for (int i = 0; i < cells.length; i++) {
-      this.cells.put(Digit.values()[i], cells[i]);
+          + Digit.COUNT + " Cells");
     }
+    this.cells = cells;
+    this.unit = unit;
   }
 
   @Override
@@ -47,26 +54,41 @@ public final class Group {
       return false;
     }
     final Group other = (Group) obj;
-    return Objects.equals(this.cells, other.cells);
+    for (int i = 0; i < Digit.COUNT; i++) {
+      // Cell.equals throws on a blank cell, so a group with one equals none.
+      Cell cell = this.cells[this.unit[i]];
+      if (cell.getContents() == null || !cell.equals(other.cells[other.unit[i]])) {
+        return false;
+      }
+    }
+    return true;
   }
 
   public void forEach(BiConsumer<? super Digit, ? super Cell> action) {
-    this.cells.forEach(action);
+    for (int i = 0; i < Digit.COUNT; i++) {
+      action.accept(Digit.fromOrdinal(i), this.cells[this.unit[i]]);
+    }
   }
 
   public Cell getCell(Digit digit) {
-    return this.cells.get(digit);
+    return this.cells[this.unit[digit.ordinal()]];
   }
 
-  @SuppressWarnings("unchecked")
   public LinkedHashMap<Digit, Cell> getCells() {
-    return (LinkedHashMap<Digit, Cell>) this.cells.clone();
+    LinkedHashMap<Digit, Cell> cells = new LinkedHashMap<>(Digit.COUNT);
+    this.forEach(cells::put);
+    return cells;
   }
 
   @Override
   public int hashCode() {
+    // The hash of getCells(), summed as Map.hashCode() would.
+    int cells = 0;
+    for (int i = 0; i < Digit.COUNT; i++) {
+      cells += Digit.fromOrdinal(i).hashCode() ^ Objects.hashCode(this.cells[this.unit[i]]);
+    }
     int hash = 7;
-    hash = 23 * hash + Objects.hashCode(this.cells);
+    hash = 23 * hash + cells;
     return hash;
   }
 }
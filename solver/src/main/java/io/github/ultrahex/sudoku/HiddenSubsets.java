@@ -0,0 +1,109 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+/**
+ * Hidden pairs, triples and so on: when some digits of a unit can, between
+ * them, only go in as many cells as there are digits, those cells can hold
+ * nothing else.
+ *
+ * @author Matthew William Noel
+ */
+final class HiddenSubsets implements Strategy {
+
+  private static final String[] NAMES = {"hiddenPairs", "hiddenTriples", "hiddenQuads"};
+
+  private final int size;
+
+  /**
+   * @param size the number of digits in a subset, from 2 to 4
+   */
+  HiddenSubsets(int size) {
+    if (size < 2 || size > 4) {
+      throw new IllegalArgumentException("Subsets have 2 to 4 digits");
+    }
+    this.size = size;
+  }
+
+  @Override
+  public int apply(Candidates candidates) {
+    Topology topology = candidates.getTopology();
+    int[] open = candidates.scratch;
+    int[] positions = candidates.scratch2;
+    int eliminated = 0;
+
+    for (int unit = 0; unit < topology.units.length; unit++) {
+      int[] cells = topology.units[unit];
+      int remaining = topology.all & ~candidates.getPlaced(unit);
+
+      // Only digits with 2 to size places left can be part of a subset.
+      int count = 0;
+      while (remaining != 0) {
+        int digit = Integer.numberOfTrailingZeros(remaining);
+        remaining &= remaining - 1;
+
+        int where = 0;
+        for (int i = 0; i < cells.length; i++) {
+          if ((candidates.getMask(cells[i]) & (1 << digit)) != 0) {
+            where |= 1 << i;
+          }
+        }
+        int places = Integer.bitCount(where);
+        if (places >= 2 && places <= this.size) {
+          open[count] = digit;
+          positions[count++] = where;
+        }
+      }
+      if (count < this.size) {
+        continue;
+      }
+
+      for (int combination = (1 << this.size) - 1; combination < 1 << count;
+          combination = Strategy.nextCombination(combination)) {
+        int digits = 0;
+        int where = 0;
+        for (int rest = combination; rest != 0; rest &= rest - 1) {
+          int j = Integer.numberOfTrailingZeros(rest);
+          digits |= 1 << open[j];
+          where |= positions[j];
+        }
+        if (Integer.bitCount(where) != this.size) {
+          continue;
+        }
+
+        for (int rest = where; rest != 0; rest &= rest - 1) {
+          eliminated += candidates.eliminate(
+              cells[Integer.numberOfTrailingZeros(rest)], ~digits);
+        }
+      }
+    }
+    return eliminated;
+  }
+
+  @Override
+  public Difficulty getDifficulty() {
+    return Difficulty.HARD;
+  }
+
+  @Override
+  public String getName() {
+    return NAMES[this.size - 2];
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+/**
+ * Bulk work over the candidate masks of every cell, which the search repeats
+ * at every node. This is the plain version; {@link VectorKernel} does the
+ * same with the incubating Vector API, many cells to an instruction.
+ * <p>
+ * The vector version is used when the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}, unless the {@value #PROPERTY}
+ * system property is set to false when the class is first used. Both always
+ * give the same answers.
+ *
+ * @author Matthew William Noel
+ */
+class Kernel {
+
+  static final String PROPERTY = "sudoku.vector";
+  static final Kernel SCALAR = new Kernel();
+  static final Kernel INSTANCE = select();
+
+  /**
+   * @return the vector version, or null if the JVM does not have the Vector
+   *     API
+   */
+  static Kernel vector() {
+    if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+      return null;
+    }
+    try {
+      return (Kernel) Class.forName("io.github.ultrahex.sudoku.VectorKernel")
+          .getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException | LinkageError ex) {
+      return null;
+    }
+  }
+
+  private static Kernel select() {
+    Kernel vector = Boolean.parseBoolean(System.getProperty(PROPERTY, "true"))
+        ? vector() : null;
+    return vector == null ? SCALAR : vector;
+  }
+
+  /**
+   * Carries on the scan of {@link #mostConstrainedCell(int[])} from a cell.
+   */
+  static int mostConstrainedCell(int[] masks, int from, int best, int bestCount) {
+    for (int cell = from; cell < masks.length; cell++) {
+      int mask = masks[cell];
+      if (mask == 0) {
+        continue;
+      }
+      int count = Integer.bitCount(mask);
+      if (count < bestCount) {
+        best = cell;
+        bestCount = count;
+        if (count <= 2) {
+          break;
+        }
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Finds the cell to guess at: the first with no more than two candidates,
+   * or failing that the first with the fewest.
+   * <p>
+   * Only cells without a digit have candidates, as long as there is no
+   * contradiction, so cells with none are passed over.
+   *
+   * @return the cell, or -1 if every cell is filled
+   */
+  int mostConstrainedCell(int[] masks) {
+    return mostConstrainedCell(masks, 0, -1, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public String toString() {
+    return "scalar";
+  }
+}
@@ -0,0 +1,342 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.util.Arrays;
+
+/**
+ * Solves many puzzles of one size at once, for throughput rather than the
+ * time to any one answer.
+ * <p>
+ * A fixed number of slots hold a puzzle each. Their candidates are stored
+ * slot by slot within every cell, so a pass of naked and hidden singles goes
+ * through memory in order and works on every slot with the same loads and
+ * much the same branches, instead of chasing one puzzle at a time. A puzzle
+ * that is filled in or found to have no solution leaves its slot to the next
+ * one; a puzzle that singles alone cannot finish is handed, candidates and
+ * all, to a {@link Solver}, which brings the other strategies and the search.
+ * Puzzles solved here are not counted in {@link Metrics}.
+ * <p>
+ * Not safe for use by more than one thread at a time, but reusable from
+ * batch to batch without allocating.
+ *
+ * @author Matthew William Noel
+ */
+public final class LockstepSolver {
+
+  /**
+   * Enough slots to cover the latency of a load without the slots outgrowing
+   * the cache.
+   */
+  public static final int DEFAULT_SLOTS = 16;
+  private static final int EMPTY = -1;
+
+  /**
+   * For every slot, the index of its board, or {@link #EMPTY}.
+   */
+  private final int[] boards;
+  private final boolean[] dead;
+  private final int[] filled;
+  /*
+   * Cell by cell, then slot by slot within the cell.
+   */
+  private final int[] masks;
+  private final int[] once;
+  /*
+   * Unit by unit, then slot by slot within the unit.
+   */
+  private final int[] placed;
+  private final boolean[] progress;
+  /*
+   * Where a stalled puzzle is handed to the solver.
+   */
+  private final Candidates handOff;
+  private final int slots;
+  private Solver solver;
+  private final Topology topology;
+  private final int[] twice;
+  private final byte[] values;
+
+  /**
+   * @param size the side of the boards: 4, 9, 16 or 25
+   * @param slots how many puzzles are worked on at once
+   */
+  public LockstepSolver(int size, int slots) {
+    if (slots < 1) {
+      throw new IllegalArgumentException("At least one slot is required");
+    }
+    this.topology = Topology.ofSize(size);
+    this.slots = slots;
+    this.boards = new int[slots];
+    this.dead = new boolean[slots];
+    this.filled = new int[slots];
+    this.masks = new int[this.topology.cells * slots];
+    this.values = new byte[this.topology.cells * slots];
+    this.placed = new int[this.topology.units.length * slots];
+    this.once = new int[slots];
+    this.twice = new int[slots];
+    this.progress = new boolean[slots];
+    this.handOff = new Candidates(this.topology);
+  }
+
+  public int getSize() {
+    return this.topology.size;
+  }
+
+  /**
+   * Fills in every board, each as {@link Solver#solve()} would. Boards that
+   * have no solution are left unchanged.
+   *
+   * @return the number of boards solved
+   */
+  public int solve(Board[] boards) {
+    return this.solve(boards, 0, boards.length);
+  }
+
+  /**
+   * Like {@link #solve(Board[])}, for the boards from {@code from} up to
+   * {@code to}.
+   */
+  public int solve(Board[] boards, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (boards[i].getTopology() != this.topology) {
+        throw new IllegalArgumentException("Boards must be " + this.topology.size
+            + "x" + this.topology.size);
+      }
+    }
+
+    Arrays.fill(this.boards, EMPTY);
+    int next = from;
+    int active = 0;
+    int solved = 0;
+    for (int slot = 0; slot < this.slots && next < to; slot++) {
+      this.load(slot, boards, next++);
+      active++;
+    }
+
+    while (active > 0) {
+      this.nakedSingles();
+      this.hiddenSingles();
+
+      for (int slot = 0; slot < this.slots; slot++) {
+        int board = this.boards[slot];
+        if (board == EMPTY) {
+          continue;
+        }
+        if (this.dead[slot]) {
+          // Left unchanged.
+        } else if (this.filled[slot] == this.topology.cells) {
+          this.write(slot, boards[board]);
+          solved++;
+        } else if (!this.progress[slot]) {
+          solved += this.handOff(slot, boards[board]) ? 1 : 0;
+        } else {
+          continue;
+        }
+
+        if (next < to) {
+          this.load(slot, boards, next++);
+        } else {
+          this.boards[slot] = EMPTY;
+          active--;
+        }
+      }
+    }
+    return solved;
+  }
+
+  /**
+   * Solves 9x9 grids like {@link #solve(Board[])}.
+   */
+  public int solve(Grid[] grids) {
+    if (this.topology != Coordinate.TOPOLOGY) {
+      throw new IllegalArgumentException("Grids are 9x9");
+    }
+    Board[] boards = new Board[grids.length];
+    for (int i = 0; i < grids.length; i++) {
+      boards[i] = grids[i].snapshot().toBoard();
+    }
+    int solved = this.solve(boards);
+    for (int i = 0; i < grids.length; i++) {
+      if (boards[i].isComplete()) {
+        grids[i].restore(boards[i].snapshot());
+      }
+    }
+    return solved;
+  }
+
+  /**
+   * Finishes a puzzle that singles alone could not, starting from its
+   * candidates.
+   */
+  private boolean handOff(int slot, Board board) {
+    this.handOff.copyFrom(this.masks, this.values, this.placed, slot, this.slots,
+        this.filled[slot]);
+    if (this.solver == null) {
+      this.solver = new Solver(this.handOff, null);
+    } else {
+      this.solver.load(this.handOff);
+    }
+    if (!this.solver.propagate(Solver.STRATEGIES.length) || !this.solver.search()) {
+      return false;
+    }
+    Candidates solution = this.solver.getCandidates();
+    for (int cell = 0; cell < this.topology.cells; cell++) {
+      board.set(cell, solution.getValue(cell) + 1);
+    }
+    return true;
+  }
+
+  /**
+   * Places every digit that is alone in some unit, in every slot at once.
+   * Also finds the units with a digit that has nowhere left to go.
+   */
+  private void hiddenSingles() {
+    Topology topology = this.topology;
+    int slots = this.slots;
+    for (int unit = 0; unit < topology.units.length; unit++) {
+      int[] cells = topology.units[unit];
+      Arrays.fill(this.once, 0);
+      Arrays.fill(this.twice, 0);
+      for (int cell : cells) {
+        int offset = cell * slots;
+        for (int slot = 0; slot < slots; slot++) {
+          int mask = this.masks[offset + slot];
+          this.twice[slot] |= this.once[slot] & mask;
+          this.once[slot] |= mask;
+        }
+      }
+
+      int offset = unit * slots;
+      for (int slot = 0; slot < slots; slot++) {
+        if (this.boards[slot] == EMPTY || this.dead[slot]) {
+          continue;
+        }
+        int placed = this.placed[offset + slot];
+        if ((this.once[slot] | placed) != topology.all) {
+          this.dead[slot] = true;
+          continue;
+        }
+        int singles = this.once[slot] & ~this.twice[slot] & ~placed;
+        while (singles != 0) {
+          int bit = Integer.lowestOneBit(singles);
+          singles ^= bit;
+          for (int cell : cells) {
+            if ((this.masks[cell * slots + slot] & bit) != 0) {
+              this.place(slot, cell, Integer.numberOfTrailingZeros(bit));
+              break;
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private void load(int slot, Board[] boards, int board) {
+    Topology topology = this.topology;
+    int slots = this.slots;
+    this.boards[slot] = board;
+    this.dead[slot] = false;
+    this.filled[slot] = 0;
+    for (int cell = 0; cell < topology.cells; cell++) {
+      this.masks[cell * slots + slot] = topology.all;
+      this.values[cell * slots + slot] = 0;
+    }
+    for (int unit = 0; unit < topology.units.length; unit++) {
+      this.placed[unit * slots + slot] = 0;
+    }
+
+    Board puzzle = boards[board];
+    for (int cell = 0; cell < topology.cells && !this.dead[slot]; cell++) {
+      int given = puzzle.get(cell) - 1;
+      if (given >= 0) {
+        if ((this.masks[cell * slots + slot] & (1 << given)) == 0) {
+          this.dead[slot] = true;
+        } else {
+          this.place(slot, cell, given);
+        }
+      }
+    }
+  }
+
+  /**
+   * Places every digit that is the last candidate of its cell, in every slot
+   * at once. This clears the progress of every slot.
+   */
+  private void nakedSingles() {
+    int slots = this.slots;
+    Arrays.fill(this.progress, false);
+    for (int cell = 0; cell < this.topology.cells; cell++) {
+      int offset = cell * slots;
+      for (int slot = 0; slot < slots; slot++) {
+        int mask = this.masks[offset + slot];
+        if (mask != 0 && (mask & (mask - 1)) == 0 && !this.dead[slot]
+            && this.boards[slot] != EMPTY) {
+          this.place(slot, cell, Integer.numberOfTrailingZeros(mask));
+        }
+      }
+    }
+  }
+
+  /**
+   * Places a digit and removes it from the candidates of every peer. A peer
+   * left with no candidates, or a digit already in a unit, kills the slot.
+   */
+  private void place(int slot, int cell, int digit) {
+    Topology topology = this.topology;
+    int slots = this.slots;
+    int bit = 1 << digit;
+
+    this.values[cell * slots + slot] = (byte) (digit + 1);
+    this.masks[cell * slots + slot] = 0;
+    this.filled[slot]++;
+    this.progress[slot] = true;
+
+    this.placeInUnit(slot, topology.rowOf[cell], bit);
+    this.placeInUnit(slot, topology.columnUnit(topology.columnOf[cell]), bit);
+    this.placeInUnit(slot, topology.boxUnit(topology.boxOf[cell]), bit);
+
+    for (int peer : topology.peers[cell]) {
+      int index = peer * slots + slot;
+      int mask = this.masks[index];
+      if ((mask & bit) != 0) {
+        this.masks[index] = mask & ~bit;
+        if (mask == bit) {
+          this.dead[slot] = true;
+        }
+      }
+    }
+  }
+
+  private void placeInUnit(int slot, int unit, int bit) {
+    int index = unit * this.slots + slot;
+    if ((this.placed[index] & bit) != 0) {
+      this.dead[slot] = true;
+    }
+    this.placed[index] |= bit;
+  }
+
+  private void write(int slot, Board board) {
+    int slots = this.slots;
+    for (int cell = 0; cell < this.topology.cells; cell++) {
+      board.set(cell, this.values[cell * slots + slot]);
+    }
+  }
+}
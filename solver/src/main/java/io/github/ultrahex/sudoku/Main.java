@@ -0,0 +1,361 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * @author Matthew William Noel
+ */
+public class Main {
+
+  private static final Logger logger = Logger.getGlobal();
+
+  private static final String USAGE = "usage: Java Sudoku-Solver [--parallel] <filename>\n"
+      + "       Java Sudoku-Solver --batch [--threads <n>] [--output <filename>]"
+      + " [--statistics <filename>] [--cache <n>] [<filename> | -]\n"
+      + "       Java Sudoku-Solver --generate <count> [--size <n>]"
+      + " [--difficulty easy|medium|hard|expert] [--threads <n>]"
+      + " [--output <filename>]\n"
+      + "       Java Sudoku-Solver --pack [--solutions] <filename> <packed filename>\n"
+      + "       Java Sudoku-Solver --unpack [--solutions] <packed filename>"
+      + " [<filename>]\n"
+      + "       Java Sudoku-Solver --serve [--port <n>] [--in-flight <n>]"
+      + " [--cache <n>] [--timeout <ms>] [--statistics]";
+
+  public static void main(String[] args) {
+    if (args.length > 0 && args[0].equals("--batch")) {
+      batch(args);
+      return;
+    }
+    if (args.length > 1 && args[0].equals("--generate")) {
+      generate(args);
+      return;
+    }
+    if (args.length > 2 && args[0].equals("--pack")) {
+      pack(args);
+      return;
+    }
+    if (args.length > 1 && args[0].equals("--unpack")) {
+      unpack(args);
+      return;
+    }
+    if (args.length > 0 && args[0].equals("--serve")) {
+      serve(args);
+      return;
+    }
+    boolean parallel = args.length == 2 && args[0].equals("--parallel");
+    if (args.length != 1 && !parallel) {
+      logger.log(Level.INFO, USAGE);
+      System.exit(0);
+    }
+
+    String name = args[args.length - 1];
+    File file = checkedFile(name);
+
+    try {
+      Board puzzle = new PuzzleParser(ByteBuffer.wrap(Files.readAllBytes(file.toPath())))
+          .parseBoard();
+      Solver solver = new Solver(puzzle);
+      if (!(parallel ? solver.solve(ForkJoinPool.commonPool()) : solver.solve())) {
+        logger.log(Level.WARNING, "{0} has no solution", name);
+      }
+      System.out.print(solver.toString());
+    } catch (IllegalArgumentException ex) {
+      logger.log(Level.SEVERE, "{0} is not a puzzle: {1}",
+          new Object[]{name, ex.getMessage()});
+      System.exit(1);
+    } catch (IOException ex) {
+      Logger.getLogger(Main.class.getName()).log(Level.SEVERE, null, ex);
+    }
+  }
+
+  private static void batch(String[] args) {
+    int threads = Runtime.getRuntime().availableProcessors();
+    String input = "-";
+    String output = null;
+    String statistics = null;
+    int cache = 0;
+
+    for (int i = 1; i < args.length; i++) {
+      if (args[i].equals("--threads") && i + 1 < args.length) {
+        try {
+          threads = Integer.parseInt(args[++i]);
+        } catch (NumberFormatException ex) {
+          logger.log(Level.SEVERE, "{0} is not a number", args[i]);
+          System.exit(1);
+        }
+      } else if (args[i].equals("--cache") && i + 1 < args.length) {
+        try {
+          cache = Integer.parseInt(args[++i]);
+        } catch (NumberFormatException ex) {
+          logger.log(Level.SEVERE, "{0} is not a number", args[i]);
+          System.exit(1);
+        }
+      } else if (args[i].equals("--output") && i + 1 < args.length) {
+        output = args[++i];
+      } else if (args[i].equals("--statistics") && i + 1 < args.length) {
+        statistics = args[++i];
+      } else if (i == args.length - 1 && (args[i].equals("-")
+          || !args[i].startsWith("--"))) {
+        input = args[i];
+      } else {
+        logger.log(Level.INFO, USAGE);
+        System.exit(0);
+      }
+    }
+    if (threads < 1) {
+      logger.log(Level.SEVERE, "{0} is not a valid thread count", threads);
+      System.exit(1);
+    }
+    if (cache < 0) {
+      logger.log(Level.SEVERE, "{0} is not a valid cache size", cache);
+      System.exit(1);
+    }
+    if (statistics != null) {
+      // Must happen before the first solver is created.
+      System.setProperty(Statistics.PROPERTY, "true");
+    }
+
+    SolutionCache solutions = cache == 0 ? null : new SolutionCache(cache);
+    try (Writer writer = new BufferedWriter(output == null
+        ? new OutputStreamWriter(System.out)
+        : new FileWriter(output))) {
+      if (!input.equals("-") && PackedReader.isPacked(checkedFile(input).toPath())) {
+        try (PackedReader reader = new PackedReader(Paths.get(input))) {
+          new Batch(threads, solutions).run(reader, writer);
+        }
+      } else {
+        try (BufferedReader reader = input.equals("-")
+            ? new BufferedReader(new InputStreamReader(System.in))
+            : new BufferedReader(new FileReader(checkedFile(input)))) {
+          new Batch(threads, solutions).run(reader, writer);
+        }
+      }
+      if (statistics != null) {
+        try (Writer json = new FileWriter(statistics)) {
+          json.write(Metrics.toJson());
+          json.write(System.lineSeparator());
+        }
+      }
+    } catch (IOException ex) {
+      Logger.getLogger(Main.class.getName()).log(Level.SEVERE, null, ex);
+      System.exit(1);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      System.exit(1);
+    }
+  }
+
+  private static void generate(String[] args) {
+    int threads = Runtime.getRuntime().availableProcessors();
+    long count = 0;
+    int size = Coordinate.SIZE;
+    Difficulty difficulty = null;
+    String output = null;
+
+    try {
+      count = Long.parseLong(args[1]);
+      for (int i = 2; i < args.length; i++) {
+        if (args[i].equals("--threads") && i + 1 < args.length) {
+          threads = Integer.parseInt(args[++i]);
+        } else if (args[i].equals("--size") && i + 1 < args.length) {
+          size = Integer.parseInt(args[++i]);
+        } else if (args[i].equals("--difficulty") && i + 1 < args.length) {
+          difficulty = Difficulty.valueOf(args[++i].toUpperCase(Locale.ROOT));
+        } else if (args[i].equals("--output") && i + 1 < args.length) {
+          output = args[++i];
+        } else {
+          logger.log(Level.INFO, USAGE);
+          System.exit(0);
+        }
+      }
+    } catch (IllegalArgumentException ex) {
+      logger.log(Level.SEVERE, "Invalid option: {0}", ex.getMessage());
+      System.exit(1);
+    }
+    if (threads < 1) {
+      logger.log(Level.SEVERE, "{0} is not a valid thread count", threads);
+      System.exit(1);
+    }
+
+    try (Writer writer = new BufferedWriter(output == null
+        ? new OutputStreamWriter(System.out)
+        : new FileWriter(output))) {
+      new Generator(size, difficulty).run(count, threads, writer);
+    } catch (IllegalArgumentException ex) {
+      logger.log(Level.SEVERE, "Invalid option: {0}", ex.getMessage());
+      System.exit(1);
+    } catch (IllegalStateException ex) {
+      logger.log(Level.SEVERE, ex.getMessage());
+      System.exit(1);
+    } catch (IOException ex) {
+      Logger.getLogger(Main.class.getName()).log(Level.SEVERE, null, ex);
+      System.exit(1);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      System.exit(1);
+    }
+  }
+
+  private static void pack(String[] args) {
+    boolean solutions = args[1].equals("--solutions");
+    int first = solutions ? 2 : 1;
+    if (args.length != first + 2) {
+      logger.log(Level.INFO, USAGE);
+      System.exit(0);
+    }
+
+    try (BufferedReader reader = new BufferedReader(
+        new FileReader(checkedFile(args[first])))) {
+      long count = Converter.pack(reader, Paths.get(args[first + 1]), solutions);
+      logger.log(Level.INFO, "Packed {0} puzzles", count);
+    } catch (IllegalArgumentException ex) {
+      logger.log(Level.SEVERE, "{0} cannot be packed: {1}",
+          new Object[]{args[first], ex.getMessage()});
+      System.exit(1);
+    } catch (IOException ex) {
+      Logger.getLogger(Main.class.getName()).log(Level.SEVERE, null, ex);
+      System.exit(1);
+    }
+  }
+
+  private static void unpack(String[] args) {
+    boolean solutions = args[1].equals("--solutions");
+    int first = solutions ? 2 : 1;
+    if (args.length != first + 1 && args.length != first + 2) {
+      logger.log(Level.INFO, USAGE);
+      System.exit(0);
+    }
+    String output = args.length == first + 2 ? args[first + 1] : null;
+
+    try (PackedReader reader = new PackedReader(checkedFile(args[first]).toPath());
+        Writer writer = new BufferedWriter(output == null
+            ? new OutputStreamWriter(System.out)
+            : new FileWriter(output))) {
+      Converter.unpack(reader, writer, solutions);
+    } catch (IllegalStateException ex) {
+      logger.log(Level.SEVERE, "{0} has no solutions", args[first]);
+      System.exit(1);
+    } catch (IOException ex) {
+      Logger.getLogger(Main.class.getName()).log(Level.SEVERE, null, ex);
+      System.exit(1);
+    }
+  }
+
+  private static void serve(String[] args) {
+    int port = 8080;
+    int inFlight = 4 * Runtime.getRuntime().availableProcessors();
+    int cache = 0;
+    long timeout = 0;
+    boolean statistics = false;
+
+    try {
+      for (int i = 1; i < args.length; i++) {
+        if (args[i].equals("--port") && i + 1 < args.length) {
+          port = Integer.parseInt(args[++i]);
+        } else if (args[i].equals("--in-flight") && i + 1 < args.length) {
+          inFlight = Integer.parseInt(args[++i]);
+        } else if (args[i].equals("--cache") && i + 1 < args.length) {
+          cache = Integer.parseInt(args[++i]);
+        } else if (args[i].equals("--timeout") && i + 1 < args.length) {
+          timeout = Long.parseLong(args[++i]);
+        } else if (args[i].equals("--statistics")) {
+          statistics = true;
+        } else {
+          logger.log(Level.INFO, USAGE);
+          System.exit(0);
+        }
+      }
+    } catch (NumberFormatException ex) {
+      logger.log(Level.SEVERE, "Invalid option: {0}", ex.getMessage());
+      System.exit(1);
+    }
+    if (cache < 0) {
+      logger.log(Level.SEVERE, "{0} is not a valid cache size", cache);
+      System.exit(1);
+    }
+    if (timeout < 0) {
+      logger.log(Level.SEVERE, "{0} is not a valid timeout", timeout);
+      System.exit(1);
+    }
+    if (statistics) {
+      // Must happen before the first solver is created.
+      System.setProperty(Statistics.PROPERTY, "true");
+    }
+
+    try {
+      Server server = new Server(port, inFlight,
+          cache == 0 ? null : new SolutionCache(cache),
+          timeout == 0 ? null : Duration.ofMillis(timeout));
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+        try {
+          server.stop(1);
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        }
+      }));
+      server.start();
+    } catch (IllegalArgumentException ex) {
+      logger.log(Level.SEVERE, "Invalid option: {0}", ex.getMessage());
+      System.exit(1);
+    } catch (IOException ex) {
+      Logger.getLogger(Main.class.getName()).log(Level.SEVERE, null, ex);
+      System.exit(1);
+    }
+  }
+
+  private static File checkedFile(String name) {
+    File file = new File(name);
+    if (!file.exists()) {
+      logger.log(Level.SEVERE, "{0} does not exist", name);
+      System.exit(1);
+    }
+    if (file.isDirectory()) {
+      logger.log(Level.SEVERE, "{0} is a directory", name);
+      System.exit(1);
+    }
+    if (!file.isFile()) {
+      logger.log(Level.SEVERE, "{0} is invalid", name);
+      System.exit(1);
+    }
+    if (!file.canRead()) {
+      logger.log(Level.SEVERE, "{0} cannot be read", name);
+      System.exit(1);
+    }
+    return file;
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Totals of the {@link Statistics} of every solve in the process.
+ * <p>
+ * Solvers report here on their own when counting is enabled, from any number
+ * of threads.
+ *
+ * @author Matthew William Noel
+ */
+public final class Metrics {
+
+  private static final LongAdder backtracks = new LongAdder();
+  private static final LongAdder[] eliminations =
+      new LongAdder[Solver.STRATEGIES.length];
+  private static final LongAdder guesses = new LongAdder();
+  private static final LongAdder hiddenSingles = new LongAdder();
+  private static final LongAdder iterations = new LongAdder();
+  private static final LongAdder nakedSingles = new LongAdder();
+  private static final LongAdder nanos = new LongAdder();
+  private static final LongAdder solved = new LongAdder();
+  private static final LongAdder solves = new LongAdder();
+
+  static {
+    for (int i = 0; i < eliminations.length; i++) {
+      eliminations[i] = new LongAdder();
+    }
+  }
+
+  public static long getSolves() {
+    return solves.sum();
+  }
+
+  public static void reset() {
+    for (LongAdder adder : new LongAdder[]{backtracks, guesses, hiddenSingles,
+        iterations, nakedSingles, nanos, solved, solves}) {
+      adder.reset();
+    }
+    for (LongAdder adder : eliminations) {
+      adder.reset();
+    }
+  }
+
+  /**
+   * @return the totals as a single JSON object
+   */
+  public static String toJson() {
+    StringBuilder json = new StringBuilder()
+        .append("{\"solves\":").append(solves.sum())
+        .append(",\"solved\":").append(solved.sum())
+        .append(",\"iterations\":").append(iterations.sum())
+        .append(",\"nakedSingles\":").append(nakedSingles.sum())
+        .append(",\"hiddenSingles\":").append(hiddenSingles.sum())
+        .append(",\"eliminations\":{");
+    for (int i = 0; i < eliminations.length; i++) {
+      json.append(i == 0 ? "\"" : ",\"").append(Solver.STRATEGIES[i].getName())
+          .append("\":").append(eliminations[i].sum());
+    }
+    return json.append("},\"guesses\":").append(guesses.sum())
+        .append(",\"backtracks\":").append(backtracks.sum())
+        .append(",\"nanos\":").append(nanos.sum())
+        .append('}').toString();
+  }
+
+  static void record(Statistics statistics, boolean wasSolved) {
+    solves.increment();
+    if (wasSolved) {
+      solved.increment();
+    }
+    backtracks.add(statistics.backtracks);
+    guesses.add(statistics.guesses);
+    hiddenSingles.add(statistics.hiddenSingles);
+    iterations.add(statistics.iterations);
+    for (int i = 0; i < eliminations.length; i++) {
+      eliminations[i].add(statistics.eliminations[i]);
+    }
+    nakedSingles.add(statistics.nakedSingles);
+    nanos.add(statistics.nanos);
+  }
+
+  private Metrics() {
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+/**
+ * Naked pairs, triples and so on: when some cells of a unit have, between
+ * them, only as many candidates as there are cells, those digits go in those
+ * cells and nowhere else in the unit.
+ *
+ * @author Matthew William Noel
+ */
+final class NakedSubsets implements Strategy {
+
+  private static final String[] NAMES = {"nakedPairs", "nakedTriples", "nakedQuads"};
+
+  private final int size;
+
+  /**
+   * @param size the number of cells in a subset, from 2 to 4
+   */
+  NakedSubsets(int size) {
+    if (size < 2 || size > 4) {
+      throw new IllegalArgumentException("Subsets have 2 to 4 cells");
+    }
+    this.size = size;
+  }
+
+  @Override
+  public int apply(Candidates candidates) {
+    Topology topology = candidates.getTopology();
+    int[] open = candidates.scratch;
+    int eliminated = 0;
+
+    for (int unit = 0; unit < topology.units.length; unit++) {
+      int[] cells = topology.units[unit];
+
+      // Only cells with 2 to size candidates can be part of a subset.
+      int count = 0;
+      for (int i = 0; i < cells.length; i++) {
+        int candidateCount = Integer.bitCount(candidates.getMask(cells[i]));
+        if (candidateCount >= 2 && candidateCount <= this.size) {
+          open[count++] = i;
+        }
+      }
+      if (count < this.size) {
+        continue;
+      }
+
+      for (int combination = (1 << this.size) - 1; combination < 1 << count;
+          combination = Strategy.nextCombination(combination)) {
+        int digits = 0;
+        int members = 0;
+        for (int rest = combination; rest != 0; rest &= rest - 1) {
+          int i = open[Integer.numberOfTrailingZeros(rest)];
+          digits |= candidates.getMask(cells[i]);
+          members |= 1 << i;
+        }
+        if (Integer.bitCount(digits) != this.size) {
+          continue;
+        }
+
+        for (int i = 0; i < cells.length; i++) {
+          if ((members & (1 << i)) == 0) {
+            eliminated += candidates.eliminate(cells[i], digits);
+          }
+        }
+      }
+    }
+    return eliminated;
+  }
+
+  @Override
+  public Difficulty getDifficulty() {
+    return Difficulty.HARD;
+  }
+
+  @Override
+  public String getName() {
+    return NAMES[this.size - 2];
+  }
+}
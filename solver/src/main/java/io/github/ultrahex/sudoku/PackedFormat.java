@@ -0,0 +1,106 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The layout of packed puzzle files.
+ * <p>
+ * A file starts with a 16 byte header: the magic bytes {@code SUDK}, the
+ * format version, the side of the boards, a flags byte, a reserved byte and
+ * the number of records as a little endian long. The records follow, all of
+ * the same width, so record {@code i} starts at {@code HEADER + i * stride}
+ * and the file is its own index.
+ * <p>
+ * A record is a puzzle, followed by its solution if {@link #SOLUTIONS} is
+ * set. Each board is its cells in row major order, each cell the digit or 0
+ * for a blank in just enough bits for the largest digit, packed from the
+ * lowest bit of each byte up. A 9x9 board takes 41 bytes.
+ *
+ * @author Matthew William Noel
+ */
+final class PackedFormat {
+
+  static final int HEADER = 16;
+  static final byte[] MAGIC = {'S', 'U', 'D', 'K'};
+  static final int SOLUTIONS = 1;
+  static final int VERSION = 1;
+
+  static int bitsPerCell(int size) {
+    return 32 - Integer.numberOfLeadingZeros(size);
+  }
+
+  static int boardBytes(int size) {
+    return (size * size * bitsPerCell(size) + 7) >>> 3;
+  }
+
+  /**
+   * Reads a board that starts at the offset, into the board given.
+   */
+  static void decode(ByteBuffer buffer, int offset, Board board) {
+    int size = board.getSize();
+    int bits = bitsPerCell(size);
+    int valueMask = (1 << bits) - 1;
+    int last = offset + boardBytes(size) - 1;
+    int cells = size * size;
+    for (int cell = 0; cell < cells; cell++) {
+      int bit = cell * bits;
+      int at = offset + (bit >>> 3);
+      int window = buffer.get(at) & 0xFF;
+      if (at < last) {
+        window |= (buffer.get(at + 1) & 0xFF) << 8;
+      }
+      int value = (window >>> (bit & 7)) & valueMask;
+      if (value > size) {
+        throw new IllegalArgumentException(value + " is not a digit of a "
+            + size + "x" + size + " board");
+      }
+      board.set(cell, value);
+    }
+  }
+
+  /**
+   * Writes the board at the position of the buffer, and moves past it.
+   */
+  static void encode(Board board, ByteBuffer buffer) {
+    int size = board.getSize();
+    int bits = bitsPerCell(size);
+    int offset = buffer.position();
+    int length = boardBytes(size);
+    for (int i = 0; i < length; i++) {
+      buffer.put(offset + i, (byte) 0);
+    }
+    int cells = size * size;
+    for (int cell = 0; cell < cells; cell++) {
+      int bit = cell * bits;
+      int at = offset + (bit >>> 3);
+      int window = board.get(cell) << (bit & 7);
+      buffer.put(at, (byte) (buffer.get(at) | window));
+      if ((window >>> 8) != 0) {
+        buffer.put(at + 1, (byte) (buffer.get(at + 1) | (window >>> 8)));
+      }
+    }
+    buffer.position(offset + length);
+  }
+
+  private PackedFormat() {
+  }
+}
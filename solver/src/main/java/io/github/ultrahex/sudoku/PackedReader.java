@@ -0,0 +1,170 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads a file of packed puzzles, written by {@link PackedWriter}, straight
+ * from memory mapped pages.
+ * <p>
+ * Records are decoded into boards the caller provides, so going through a
+ * file allocates nothing per puzzle. Any number of threads can read at once.
+ *
+ * @author Matthew William Noel
+ */
+public final class PackedReader implements Closeable {
+
+  /**
+   * @return true if the file starts like a packed puzzle file
+   */
+  public static boolean isPacked(Path path) throws IOException {
+    byte[] magic = new byte[PackedFormat.MAGIC.length];
+    try (InputStream input = Files.newInputStream(path)) {
+      return input.readNBytes(magic, 0, magic.length) == magic.length
+          && Arrays.equals(magic, PackedFormat.MAGIC);
+    }
+  }
+
+  private final int boardBytes;
+  private final long count;
+  private final int perSegment;
+  private final ByteBuffer[] segments;
+  private final int size;
+  private final boolean solutions;
+  private final int stride;
+
+  public PackedReader(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      ByteBuffer header = ByteBuffer.allocate(PackedFormat.HEADER)
+          .order(ByteOrder.LITTLE_ENDIAN);
+      while (header.hasRemaining() && channel.read(header) >= 0) {
+        // Keep reading until the header is complete.
+      }
+      header.flip();
+      byte[] magic = new byte[PackedFormat.MAGIC.length];
+      if (header.remaining() == PackedFormat.HEADER) {
+        header.get(magic);
+      }
+      if (!Arrays.equals(magic, PackedFormat.MAGIC)) {
+        throw new IOException(path + " is not a packed puzzle file");
+      }
+      if (header.get() != PackedFormat.VERSION) {
+        throw new IOException(path + " has an unknown format version");
+      }
+      this.size = header.get();
+      try {
+        Topology.ofSize(this.size);
+      } catch (IllegalArgumentException ex) {
+        throw new IOException(path + " has boards of an invalid size", ex);
+      }
+      this.solutions = (header.get() & PackedFormat.SOLUTIONS) != 0;
+      header.get();
+      this.count = header.getLong();
+
+      this.boardBytes = PackedFormat.boardBytes(this.size);
+      this.stride = this.boardBytes * (this.solutions ? 2 : 1);
+      if (channel.size() < PackedFormat.HEADER + this.count * this.stride) {
+        throw new IOException(path + " is shorter than its header says");
+      }
+
+      // A mapping is limited to 2 GB, so big files are mapped in segments of
+      // whole records.
+      this.perSegment = Integer.MAX_VALUE / this.stride;
+      this.segments = new ByteBuffer[(int) ((this.count + this.perSegment - 1)
+          / this.perSegment)];
+      for (int i = 0; i < this.segments.length; i++) {
+        long first = (long) i * this.perSegment;
+        long records = Math.min(this.perSegment, this.count - first);
+        this.segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+            PackedFormat.HEADER + first * this.stride, records * this.stride);
+      }
+    }
+  }
+
+  /**
+   * Unmapping is left to the garbage collector, so this only forgets the
+   * pages.
+   */
+  @Override
+  public void close() {
+    Arrays.fill(this.segments, null);
+  }
+
+  public long getCount() {
+    return this.count;
+  }
+
+  /**
+   * @return the side of every board in the file
+   */
+  public int getSize() {
+    return this.size;
+  }
+
+  public boolean hasSolutions() {
+    return this.solutions;
+  }
+
+  /**
+   * Decodes a puzzle into a board of the size of the file.
+   *
+   * @return the board given
+   */
+  public Board read(long index, Board puzzle) {
+    this.decode(index, 0, puzzle);
+    return puzzle;
+  }
+
+  /**
+   * Decodes the solution of a puzzle into a board of the size of the file.
+   *
+   * @return the board given
+   */
+  public Board readSolution(long index, Board solution) {
+    if (!this.solutions) {
+      throw new IllegalStateException("This file holds puzzles only");
+    }
+    this.decode(index, this.boardBytes, solution);
+    return solution;
+  }
+
+  private void decode(long index, int offset, Board board) {
+    if (index < 0 || index >= this.count) {
+      throw new IndexOutOfBoundsException("Record " + index + " of " + this.count);
+    }
+    if (board.getSize() != this.size) {
+      throw new IllegalArgumentException("The file holds " + this.size + "x"
+          + this.size + " boards");
+    }
+    ByteBuffer segment = this.segments[(int) (index / this.perSegment)];
+    PackedFormat.decode(segment,
+        (int) (index % this.perSegment) * this.stride + offset, board);
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes puzzles, and optionally their solutions, in the packed format of
+ * {@link PackedReader}.
+ *
+ * @author Matthew William Noel
+ */
+public final class PackedWriter implements Closeable {
+
+  private static final int BUFFER = 1 << 16;
+
+  private final ByteBuffer buffer;
+  private final FileChannel channel;
+  private long count;
+  private final int size;
+  private final boolean solutions;
+
+  /**
+   * Creates or replaces the file.
+   *
+   * @param size the side of every board in the file
+   * @param solutions whether every puzzle is written with its solution
+   */
+  public PackedWriter(Path path, int size, boolean solutions) throws IOException {
+    Topology.ofSize(size);
+    this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    this.size = size;
+    this.solutions = solutions;
+    int stride = PackedFormat.boardBytes(size) * (solutions ? 2 : 1);
+    this.buffer = ByteBuffer.allocate(Math.max(BUFFER, stride))
+        .order(ByteOrder.LITTLE_ENDIAN);
+    this.writeHeader();
+  }
+
+  /**
+   * Fills in the number of records and closes the file.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      this.flush();
+      this.channel.position(0);
+      this.writeHeader();
+    } finally {
+      this.channel.close();
+    }
+  }
+
+  public long getCount() {
+    return this.count;
+  }
+
+  /**
+   * Writes a puzzle on its own, in a file without solutions.
+   */
+  public void write(Board puzzle) throws IOException {
+    if (this.solutions) {
+      throw new IllegalStateException("This file holds solutions as well");
+    }
+    this.check(puzzle);
+    this.reserve();
+    PackedFormat.encode(puzzle, this.buffer);
+    this.count++;
+  }
+
+  /**
+   * Writes a puzzle and its solution, in a file with solutions.
+   */
+  public void write(Board puzzle, Board solution) throws IOException {
+    if (!this.solutions) {
+      throw new IllegalStateException("This file holds puzzles only");
+    }
+    this.check(puzzle);
+    this.check(solution);
+    this.reserve();
+    PackedFormat.encode(puzzle, this.buffer);
+    PackedFormat.encode(solution, this.buffer);
+    this.count++;
+  }
+
+  private void check(Board board) {
+    if (board.getSize() != this.size) {
+      throw new IllegalArgumentException("A " + board.getSize() + "x"
+          + board.getSize() + " board does not belong in a file of "
+          + this.size + "x" + this.size + " boards");
+    }
+  }
+
+  private void flush() throws IOException {
+    this.buffer.flip();
+    while (this.buffer.hasRemaining()) {
+      this.channel.write(this.buffer);
+    }
+    this.buffer.clear();
+  }
+
+  private void reserve() throws IOException {
+    int stride = PackedFormat.boardBytes(this.size) * (this.solutions ? 2 : 1);
+    if (this.buffer.remaining() < stride) {
+      this.flush();
+    }
+  }
+
+  private void writeHeader() throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(PackedFormat.HEADER)
+        .order(ByteOrder.LITTLE_ENDIAN);
+    header.put(PackedFormat.MAGIC)
+        .put((byte) PackedFormat.VERSION)
+        .put((byte) this.size)
+        .put((byte) (this.solutions ? PackedFormat.SOLUTIONS : 0))
+        .put((byte) 0)
+        .putLong(this.count)
+        .flip();
+    while (header.hasRemaining()) {
+      this.channel.write(header);
+    }
+  }
+}
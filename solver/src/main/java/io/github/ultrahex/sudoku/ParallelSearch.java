@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One branch of a parallel search. While the pool is short of work a branch
+ * forks a task for every candidate of its most constrained cell, so idle
+ * threads can steal them; otherwise it searches on alone. Every branch stops
+ * once any of them has found a solution.
+ *
+ * @author Matthew William Noel
+ */
+final class ParallelSearch extends RecursiveTask<Candidates> {
+
+  /*
+   * Keep splitting while the queue of this worker holds fewer tasks than
+   * this, so that thieves always find something.
+   */
+  private static final int SURPLUS = 2;
+
+  private static final long serialVersionUID = 1L;
+
+  private final Candidates candidates;
+  private final Statistics statistics;
+  private final AtomicBoolean stop;
+
+  /**
+   * @param candidates the state to search from, which this task takes over
+   * @param statistics where to add the work done, if counting is enabled
+   */
+  ParallelSearch(Candidates candidates, AtomicBoolean stop, Statistics statistics) {
+    this.candidates = candidates;
+    this.statistics = statistics;
+    this.stop = stop;
+  }
+
+  @Override
+  protected Candidates compute() {
+    if (this.stop.get()) {
+      return null;
+    }
+
+    Solver solver = new Solver(this.candidates, this.stop);
+    Candidates solution = this.search(solver);
+    if (Statistics.ENABLED) {
+      synchronized (this.statistics) {
+        this.statistics.add(solver.getStatistics());
+      }
+    }
+    if (solution != null) {
+      this.stop.set(true);
+    }
+    return solution;
+  }
+
+  private Candidates search(Solver solver) {
+    if (!solver.propagate(Solver.SEARCH_STRATEGIES)) {
+      return null;
+    }
+    int cell = solver.mostConstrainedCell();
+    if (cell == -1) {
+      return solver.getCandidates();
+    }
+    if (ForkJoinTask.getSurplusQueuedTaskCount() >= SURPLUS) {
+      return solver.search() ? solver.getCandidates() : null;
+    }
+
+    Candidates branchPoint = solver.getCandidates();
+    int mask = branchPoint.getMask(cell);
+    ParallelSearch[] branches = new ParallelSearch[Integer.bitCount(mask)];
+    for (int i = 0; mask != 0; i++) {
+      int bit = Integer.lowestOneBit(mask);
+      mask ^= bit;
+
+      Candidates branch = new Candidates(branchPoint);
+      branch.place(cell, Integer.numberOfTrailingZeros(bit));
+      branches[i] = new ParallelSearch(branch, this.stop, this.statistics);
+    }
+
+    for (int i = branches.length - 1; i > 0; i--) {
+      branches[i].fork();
+    }
+    Candidates solution = branches[0].compute();
+    for (int i = 1; i < branches.length; i++) {
+      Candidates found = branches[i].join();
+      if (solution == null) {
+        solution = found;
+      }
+    }
+    return solution;
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+/**
+ * Thrown when text cannot be read as a puzzle, with where it went wrong.
+ *
+ * @author Matthew William Noel
+ */
+public class PuzzleFormatException extends IllegalArgumentException {
+
+  private static final long serialVersionUID = 1L;
+
+  private final int column;
+  private final int line;
+
+  /**
+   * @param line the line of the input, from 1
+   * @param column the column within the line, from 1, or 0 if the problem is
+   *     with the line as a whole
+   */
+  public PuzzleFormatException(String message, int line, int column) {
+    super("Line " + line + (column > 0 ? ", column " + column : "") + ": " + message);
+    this.column = column;
+    this.line = line;
+  }
+
+  public int getColumn() {
+    return this.column;
+  }
+
+  public int getLine() {
+    return this.line;
+  }
+}
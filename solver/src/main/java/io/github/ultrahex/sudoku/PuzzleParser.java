@@ -0,0 +1,274 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads puzzles from bytes, into an array of cells the caller provides, so
+ * parsing allocates nothing.
+ * <p>
+ * Digits are written 1-9 followed by A-P, in either case, and '.', '0' or
+ * '_' is a blank. Spaces, tabs and the separators {@code | + - = , ;} between
+ * cells are ignored, so all of these notations are understood:
+ * <ul>
+ * <li>a whole puzzle on one line, such as 81 characters for a 9x9 board,</li>
+ * <li>one row per line, with or without separators and box borders,</li>
+ * <li>one row per line with spaces for blanks and no other blank symbol or
+ * separator, where short lines are padded with blanks to as many cells as
+ * there are lines, and a line of nothing but spaces is a row of blanks.</li>
+ * </ul>
+ * Empty lines before and after a puzzle are not part of it.
+ * The size of the board follows from the number of cells.
+ *
+ * @author Matthew William Noel
+ */
+public final class PuzzleParser {
+
+  /**
+   * Enough cells for the largest board.
+   */
+  public static final int MAX_CELLS = 25 * 25;
+
+  private static boolean isBlank(int c) {
+    return c == '.' || c == '0' || c == '_';
+  }
+
+  private static boolean isSeparator(int c) {
+    return c == ' ' || c == '\t' || c == '\r' || c == '|' || c == '+'
+        || c == '-' || c == '=' || c == ',' || c == ';';
+  }
+
+  /**
+   * @return the digit the symbol stands for, 0 for a blank, or -1
+   */
+  private static int valueOf(int c) {
+    if (c >= '1' && c <= '9') {
+      return c - '0';
+    }
+    if (c >= 'A' && c <= 'P') {
+      return c - 'A' + 10;
+    }
+    if (c >= 'a' && c <= 'p') {
+      return c - 'a' + 10;
+    }
+    return isBlank(c) ? 0 : -1;
+  }
+
+  private final ByteBuffer input;
+  private int line = 1;
+
+  /**
+   * @param input read from its position to its limit, which it is left at
+   */
+  public PuzzleParser(ByteBuffer input) {
+    this.input = input;
+  }
+
+  /**
+   * Reads the next puzzle of input with one puzzle per line. Blank lines are
+   * skipped.
+   *
+   * @param cells where the digits go, row major, 0 for blanks
+   * @return the side of the board, or 0 at the end of the input
+   * @throws PuzzleFormatException if the line is not a puzzle
+   */
+  public int next(byte[] cells) {
+    ByteBuffer input = this.input;
+    while (input.hasRemaining()) {
+      int start = input.position();
+      int end = start;
+      boolean empty = true;
+      while (end < input.limit() && input.get(end) != '\n') {
+        empty &= isSeparator(input.get(end));
+        end++;
+      }
+      input.position(Math.min(end + 1, input.limit()));
+      int number = this.line++;
+      if (!empty) {
+        return this.decode(start, end, number, 0, cells);
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Like {@link #next(byte[])}, into a new board.
+   *
+   * @return the board, or null at the end of the input
+   */
+  public Board nextBoard() {
+    byte[] cells = new byte[MAX_CELLS];
+    int size = this.next(cells);
+    return size == 0 ? null : toBoard(cells, size);
+  }
+
+  /**
+   * Reads all the rest of the input as a single puzzle, in any of the
+   * notations.
+   *
+   * @param cells where the digits go, row major, 0 for blanks
+   * @return the side of the board
+   * @throws PuzzleFormatException if the input is not a puzzle
+   */
+  public int parse(byte[] cells) {
+    ByteBuffer input = this.input;
+    int start = input.position();
+    int end = input.limit();
+    input.position(end);
+
+    // Empty lines before and after the puzzle are not rows, but a line of
+    // spaces is, since spaces may be its blanks. Spaces are blanks only in
+    // rows that use no other blank or separator and are no longer than there
+    // are rows.
+    int contentStart = -1;
+    int contentEnd = -1;
+    int firstRow = 0;
+    int lines = 0;
+    int rows = 0;
+    int longest = 0;
+    int length = 0;
+    int lineStart = start;
+    boolean otherMarks = false;
+    boolean content = false;
+    for (int i = start; i <= end; i++) {
+      int c = i < end ? input.get(i) : '\n';
+      if (c == '\n') {
+        if (length > 0) {
+          if (contentStart < 0) {
+            contentStart = lineStart;
+            firstRow = lines;
+          }
+          contentEnd = i;
+          rows = lines - firstRow + 1;
+          longest = Math.max(longest, length);
+        }
+        if (i < end) {
+          lines++;
+        }
+        length = 0;
+        lineStart = i + 1;
+      } else if (c != '\r') {
+        content |= c != ' ' && c != '\t';
+        otherMarks |= isBlank(c) || c != ' ' && c != '\t' && isSeparator(c);
+        length++;
+      }
+    }
+
+    int first = this.line;
+    this.line += lines;
+    if (!content) {
+      throw new PuzzleFormatException("There is no puzzle", first, 0);
+    }
+    boolean spacesAreBlanks = rows > 1 && !otherMarks && longest <= rows;
+    return this.decode(contentStart, contentEnd, first + firstRow,
+        spacesAreBlanks ? rows : 0, cells);
+  }
+
+  /**
+   * Like {@link #parse(byte[])}, into a new board.
+   */
+  public Board parseBoard() {
+    byte[] cells = new byte[MAX_CELLS];
+    return toBoard(cells, this.parse(cells));
+  }
+
+  private static Board toBoard(byte[] cells, int size) {
+    Board board = new Board(size);
+    for (int cell = 0; cell < size * size; cell++) {
+      board.set(cell, cells[cell]);
+    }
+    return board;
+  }
+
+  /**
+   * @param rows with spaces or tabs for blanks, the number of cells in a
+   *     row; otherwise 0
+   */
+  private int decode(int start, int end, int firstLine, int rows, byte[] cells) {
+    ByteBuffer input = this.input;
+    int count = 0;
+    int line = firstLine;
+    int lineStart = start;
+    int inRow = 0;
+    int largest = 0;
+    int largestLine = 0;
+    int largestColumn = 0;
+
+    for (int i = start; i <= end; i++) {
+      int c = i < end ? input.get(i) : '\n';
+      if (c == '\n') {
+        if (rows > 0) {
+          for (; inRow < rows && count < cells.length; inRow++) {
+            cells[count++] = 0;
+          }
+          inRow = 0;
+        }
+        line++;
+        lineStart = i + 1;
+        continue;
+      }
+
+      int value;
+      if (rows > 0 && (c == ' ' || c == '\t')) {
+        value = 0;
+      } else if (rows == 0 && isSeparator(c) || c == '\r') {
+        continue;
+      } else {
+        value = valueOf(c);
+      }
+      int column = i - lineStart + 1;
+      if (value < 0) {
+        throw new PuzzleFormatException(
+            "'" + (char) (c & 0xFF) + "' is neither a digit nor a blank", line, column);
+      }
+      if (rows > 0 && ++inRow > rows) {
+        throw new PuzzleFormatException("A row of a " + rows + "x" + rows
+            + " board has only " + rows + " cells", line, column);
+      }
+      if (count == cells.length) {
+        throw new PuzzleFormatException("Too many cells", line, column);
+      }
+      if (value > largest) {
+        largest = value;
+        largestLine = line;
+        largestColumn = column;
+      }
+      cells[count++] = (byte) value;
+    }
+
+    int size = (int) Math.round(Math.sqrt(count));
+    if (size * size != count) {
+      throw new PuzzleFormatException(count + " cells do not make a board",
+          firstLine, 0);
+    }
+    try {
+      Topology.ofSize(size);
+    } catch (IllegalArgumentException ex) {
+      throw new PuzzleFormatException(ex.getMessage(), firstLine, 0);
+    }
+    if (largest > size) {
+      throw new PuzzleFormatException("'" + Board.SYMBOLS.charAt(largest - 1)
+          + "' is not a digit of a " + size + "x" + size + " board",
+          largestLine, largestColumn);
+    }
+    return size;
+  }
+}
@@ -0,0 +1,419 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Solves puzzles over HTTP, so that a long running process keeps its solvers
+ * warm instead of starting a JVM per puzzle. Only the JDK's own server is
+ * used, and it listens on the loopback address alone.
+ * <p>
+ * {@code POST /solve} takes either text, one puzzle per line, and answers with
+ * one line per puzzle, copying those without a solution unchanged like
+ * {@code --batch}; or JSON, {@code {"puzzle": "..."}} or
+ * {@code {"puzzles": ["...", ...]}}, and answers with
+ * {@code {"solutions": [...], "nanos": n}}, where a puzzle that is malformed
+ * or has no solution gets null. Text answers carry the time taken in a
+ * {@code Solve-Nanos} header. Puzzles can be given a time limit each, and
+ * those that run out of time are treated like those without a solution.
+ * <p>
+ * {@code GET /health} answers "ok", and {@code GET /metrics} the request
+ * counts together with the totals of {@link Metrics}, if
+ * {@link Statistics#ENABLED}, and of the {@link SolutionCache}, if there is
+ * one.
+ * <p>
+ * Each request runs on a virtual thread where the JVM has them, and on a
+ * pooled thread otherwise. Once the most requests allowed are in flight, the
+ * rest are turned away with 503 straight away rather than queued.
+ *
+ * @author Matthew William Noel
+ */
+public final class Server {
+
+  /**
+   * The most bytes read from one request.
+   */
+  static final int MAX_BODY = 16 << 20;
+  private static final Logger logger = Logger.getLogger(Server.class.getName());
+
+  private static byte[] read(InputStream input) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    int read;
+    while ((read = input.read(buffer)) >= 0) {
+      bytes.write(buffer, 0, read);
+      if (bytes.size() > MAX_BODY) {
+        return null;
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  private static void send(HttpExchange exchange, int status, String type, String body)
+      throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", type + "; charset=utf-8");
+    exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+    try (OutputStream output = exchange.getResponseBody()) {
+      output.write(bytes);
+    }
+  }
+
+  /**
+   * Null unless repeated puzzles are looked up rather than solved.
+   */
+  private final SolutionCache cache;
+  private final ExecutorService executor;
+  private final Semaphore inFlight;
+  private final int maxInFlight;
+  private final LongAdder puzzles = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder requests = new LongAdder();
+  private final HttpServer server;
+  private final LongAdder timedOut = new LongAdder();
+  /**
+   * Null unless every puzzle has a time limit.
+   */
+  private final Duration timeout;
+  /*
+   * Solvers between requests, see Solver.fromPool(Queue, Board).
+   */
+  private final ConcurrentLinkedQueue<Solver> solvers = new ConcurrentLinkedQueue<>();
+
+  /**
+   * @param port the port to listen on, or 0 for any free one
+   * @param maxInFlight the most requests handled at once
+   * @param cache null, or where solutions are looked up first
+   */
+  public Server(int port, int maxInFlight, SolutionCache cache) throws IOException {
+    this(port, maxInFlight, cache, null);
+  }
+
+  /**
+   * @param timeout the longest a puzzle may take, or null for no limit
+   */
+  public Server(int port, int maxInFlight, SolutionCache cache, Duration timeout)
+      throws IOException {
+    if (maxInFlight < 1) {
+      throw new IllegalArgumentException("At least one request must be allowed in flight");
+    }
+    this.maxInFlight = maxInFlight;
+    this.inFlight = new Semaphore(maxInFlight);
+    this.cache = cache;
+    this.timeout = timeout;
+    this.executor = AsyncSolver.newDefaultExecutor();
+    this.server = HttpServer.create(
+        new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+    this.server.setExecutor(this.executor);
+    this.server.createContext("/solve", this::solve);
+    this.server.createContext("/health", this::health);
+    this.server.createContext("/metrics", this::metrics);
+  }
+
+  /**
+   * @return the port listened on, which is only known once bound when 0 was
+   *     asked for
+   */
+  public int getPort() {
+    return this.server.getAddress().getPort();
+  }
+
+  public void start() {
+    this.server.start();
+    logger.log(Level.INFO, "Listening on http://{0}:{1,number,#}/",
+        new Object[]{this.server.getAddress().getHostString(), this.getPort()});
+  }
+
+  /**
+   * Stops accepting requests, and waits up to the delay for those in flight.
+   */
+  public void stop(int seconds) throws InterruptedException {
+    this.server.stop(seconds);
+    this.executor.shutdown();
+    this.executor.awaitTermination(seconds, TimeUnit.SECONDS);
+  }
+
+  /**
+   * @return the request counts and totals as a single JSON object
+   */
+  public String toJson() {
+    StringBuilder json = new StringBuilder()
+        .append("{\"requests\":").append(this.requests.sum())
+        .append(",\"rejected\":").append(this.rejected.sum())
+        .append(",\"inFlight\":").append(this.maxInFlight - this.inFlight.availablePermits())
+        .append(",\"maxInFlight\":").append(this.maxInFlight)
+        .append(",\"puzzles\":").append(this.puzzles.sum())
+        .append(",\"timedOut\":").append(this.timedOut.sum());
+    if (Statistics.ENABLED) {
+      json.append(",\"solver\":").append(Metrics.toJson());
+    }
+    if (this.cache != null) {
+      json.append(",\"cache\":{\"hits\":").append(this.cache.getHits())
+          .append(",\"misses\":").append(this.cache.getMisses())
+          .append(",\"evictions\":").append(this.cache.getEvictions())
+          .append(",\"size\":").append(this.cache.size())
+          .append('}');
+    }
+    return json.append('}').toString();
+  }
+
+  private void health(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      send(exchange, 200, "text/plain", "ok\n");
+    }
+  }
+
+  private void metrics(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      send(exchange, 200, "application/json", this.toJson() + "\n");
+    }
+  }
+
+  private void solve(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      this.requests.increment();
+      if (!exchange.getRequestMethod().equals("POST")) {
+        exchange.getResponseHeaders().set("Allow", "POST");
+        send(exchange, 405, "text/plain", "Puzzles must be POSTed\n");
+        return;
+      }
+      if (!this.inFlight.tryAcquire()) {
+        this.rejected.increment();
+        exchange.getResponseHeaders().set("Retry-After", "1");
+        send(exchange, 503, "text/plain", "Too many requests in flight\n");
+        return;
+      }
+      try {
+        this.solve(exchange, read(exchange.getRequestBody()));
+      } finally {
+        this.inFlight.release();
+      }
+    } catch (IOException | RuntimeException ex) {
+      logger.log(Level.WARNING, "Request failed", ex);
+      throw ex;
+    }
+  }
+
+  private void solve(HttpExchange exchange, byte[] body) throws IOException {
+    if (body == null) {
+      send(exchange, 413, "text/plain", "Requests are limited to " + MAX_BODY + " bytes\n");
+      return;
+    }
+    String type = exchange.getRequestHeaders().getFirst("Content-Type");
+    String text = new String(body, StandardCharsets.UTF_8);
+    long start = System.nanoTime();
+
+    if (type != null && type.startsWith("application/json")) {
+      List<String> puzzles;
+      try {
+        puzzles = Json.puzzles(text);
+      } catch (IllegalArgumentException ex) {
+        send(exchange, 400, "text/plain", ex.getMessage() + "\n");
+        return;
+      }
+      StringBuilder json = new StringBuilder("{\"solutions\":[");
+      for (int i = 0; i < puzzles.size(); i++) {
+        String solution = this.solve(puzzles.get(i));
+        json.append(i == 0 ? "" : ",")
+            .append(solution == null ? "null" : '"' + solution + '"');
+      }
+      json.append("],\"nanos\":").append(System.nanoTime() - start).append("}\n");
+      send(exchange, 200, "application/json", json.toString());
+      return;
+    }
+
+    StringBuilder lines = new StringBuilder();
+    for (String line : text.split("\n")) {
+      String puzzle = line.trim();
+      if (!puzzle.isEmpty()) {
+        String solution = this.solve(puzzle);
+        lines.append(solution == null ? puzzle : solution).append('\n');
+      }
+    }
+    exchange.getResponseHeaders().set("Solve-Nanos",
+        Long.toString(System.nanoTime() - start));
+    send(exchange, 200, "text/plain", lines.toString());
+  }
+
+  /**
+   * @return the solution on a single line, or null if the puzzle is
+   *     malformed, has no solution or ran out of time
+   */
+  private String solve(String puzzle) {
+    this.puzzles.increment();
+    Board board;
+    try {
+      board = Board.parse(puzzle);
+    } catch (IllegalArgumentException ex) {
+      return null;
+    }
+    Budget budget = this.timeout == null ? null : new Budget(this.timeout, 0);
+    if (this.cache != null) {
+      return this.toLine(this.cache.solve(board, budget), board);
+    }
+
+    Solver solver = Solver.fromPool(this.solvers, board);
+    try {
+      if (budget == null) {
+        return solver.solve() ? board.toLine() : null;
+      }
+      return this.toLine(solver.solve(budget).getStatus(), board);
+    } finally {
+      this.solvers.offer(solver);
+    }
+  }
+
+  private String toLine(SolveResult.Status status, Board board) {
+    if (status == SolveResult.Status.BUDGET_EXCEEDED) {
+      this.timedOut.increment();
+    }
+    return status == SolveResult.Status.SOLVED ? board.toLine() : null;
+  }
+
+  /**
+   * Just enough of JSON to read the puzzles out of a request.
+   */
+  private static final class Json {
+
+    static List<String> puzzles(String text) {
+      Json json = new Json(text);
+      List<String> puzzles = new ArrayList<>();
+      json.expect('{');
+      if (json.peek() != '}') {
+        do {
+          String key = json.string();
+          json.expect(':');
+          if (key.equals("puzzle")) {
+            puzzles.add(json.string());
+          } else if (key.equals("puzzles")) {
+            json.expect('[');
+            if (json.peek() != ']') {
+              do {
+                puzzles.add(json.string());
+              } while (json.skip(','));
+            }
+            json.expect(']');
+          } else {
+            throw new IllegalArgumentException("Unknown key \"" + key + "\"");
+          }
+        } while (json.skip(','));
+      }
+      json.expect('}');
+      if (json.peek() != -1) {
+        throw new IllegalArgumentException("Unexpected text after the object");
+      }
+      return puzzles;
+    }
+
+    private int position;
+    private final String text;
+
+    private Json(String text) {
+      this.text = text;
+    }
+
+    private void expect(char c) {
+      if (!this.skip(c)) {
+        throw new IllegalArgumentException("Expected '" + c + "' at " + this.position);
+      }
+    }
+
+    /**
+     * @return the next character that is not white space, or -1 at the end
+     */
+    private int peek() {
+      while (this.position < this.text.length()
+          && Character.isWhitespace(this.text.charAt(this.position))) {
+        this.position++;
+      }
+      return this.position < this.text.length() ? this.text.charAt(this.position) : -1;
+    }
+
+    private boolean skip(char c) {
+      if (this.peek() != c) {
+        return false;
+      }
+      this.position++;
+      return true;
+    }
+
+    private String string() {
+      this.expect('"');
+      StringBuilder string = new StringBuilder();
+      while (this.position < this.text.length()) {
+        char c = this.text.charAt(this.position++);
+        if (c == '"') {
+          return string.toString();
+        }
+        if (c == '\\' && this.position < this.text.length()) {
+          c = this.text.charAt(this.position++);
+          switch (c) {
+            case 'n':
+              c = '\n';
+              break;
+            case 'r':
+              c = '\r';
+              break;
+            case 't':
+              c = '\t';
+              break;
+            case 'u':
+              if (this.position + 4 > this.text.length()) {
+                throw new IllegalArgumentException("Truncated escape at " + this.position);
+              }
+              try {
+                c = (char) Integer.parseInt(
+                    this.text.substring(this.position, this.position + 4), 16);
+              } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Invalid escape at " + this.position);
+              }
+              this.position += 4;
+              break;
+            default:
+              // '"', '\\' and '/' stand for themselves; so do the rest of
+              // '\b' and '\f', which no puzzle contains.
+              break;
+          }
+        }
+        string.append(c);
+      }
+      throw new IllegalArgumentException("Unterminated string");
+    }
+  }
+}
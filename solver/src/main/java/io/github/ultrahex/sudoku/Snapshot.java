@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.util.Arrays;
+
+/**
+ * The contents of a {@link Board} or {@link Grid} at one moment, which never
+ * changes. Keeping a snapshot per step is enough to undo any number of steps,
+ * or to come back to a branch point.
+ * <p>
+ * A board shares its cells with the snapshots taken of it, and copies them
+ * only when it is next changed, so a snapshot costs nothing up front and at
+ * most one copy of the cells, a byte each, however many are taken in a row.
+ * <p>
+ * Snapshots are immutable, so they can be handed between threads freely.
+ *
+ * @author Matthew William Noel
+ */
+public final class Snapshot {
+
+  /*
+   * Never written, since every board that shares them copies them first.
+   */
+  private final byte[] cells;
+  private final int filled;
+  private final Topology topology;
+
+  Snapshot(Topology topology, byte[] cells, int filled) {
+    this.topology = topology;
+    this.cells = cells;
+    this.filled = filled;
+  }
+
+  /**
+   * @return the digit in the cell, or 0 if it was blank
+   */
+  public int get(int row, int column) {
+    if (row < 0 || row >= this.topology.size || column < 0
+        || column >= this.topology.size) {
+      throw new IndexOutOfBoundsException("(" + row + ", " + column
+          + ") is outside a " + this.topology.size + "x"
+          + this.topology.size + " board");
+    }
+    return this.cells[row * this.topology.size + column];
+  }
+
+  public int getSize() {
+    return this.topology.size;
+  }
+
+  public boolean isComplete() {
+    return this.filled == this.cells.length;
+  }
+
+  /**
+   * @return a new board with these contents, sharing the cells until either
+   *     is changed
+   */
+  public Board toBoard() {
+    Board board = new Board(this.topology.size);
+    board.restore(this);
+    return board;
+  }
+
+  /**
+   * @return the contents on a single line, with '.' for blanks
+   */
+  public String toLine() {
+    StringBuilder builder = new StringBuilder(this.cells.length);
+    for (byte value : this.cells) {
+      builder.append(value == 0 ? '.' : Board.SYMBOLS.charAt(value - 1));
+    }
+    return builder.toString();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof Snapshot)) {
+      return false;
+    }
+    Snapshot other = (Snapshot) obj;
+    return this.topology == other.topology && Arrays.equals(this.cells, other.cells);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * this.topology.size + Arrays.hashCode(this.cells);
+  }
+
+  @Override
+  public String toString() {
+    return this.toLine();
+  }
+
+  int get(int cell) {
+    return this.cells[cell];
+  }
+
+  byte[] getCells() {
+    return this.cells;
+  }
+
+  int getFilled() {
+    return this.filled;
+  }
+
+  Topology getTopology() {
+    return this.topology;
+  }
+}
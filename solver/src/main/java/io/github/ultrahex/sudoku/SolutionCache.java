@@ -0,0 +1,209 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the solutions of recent puzzles by their {@link CanonicalForm}, so
+ * that a puzzle seen before, or any relabelled, shuffled or transposed copy
+ * of it, is looked up rather than solved again. Copies of highly symmetric
+ * puzzles can be missed; see {@link CanonicalForm}. Puzzles without a solution
+ * are remembered too.
+ * <p>
+ * The cache is split into segments, each locked on its own and evicting its
+ * least recently used entry once full, so any number of threads can share
+ * one. Two threads that miss on the same puzzle at once both solve it.
+ *
+ * @author Matthew William Noel
+ */
+public final class SolutionCache {
+
+  private static final byte[] NO_SOLUTION = new byte[0];
+  private static final int SEGMENTS = 16;
+
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final Segment[] segments;
+  /*
+   * Solvers between misses, pooled rather than kept per thread, since
+   * the server calls in from virtual threads.
+   */
+  private final ConcurrentLinkedQueue<Solver> solvers = new ConcurrentLinkedQueue<>();
+
+  /**
+   * @param capacity the most solutions to keep
+   */
+  public SolutionCache(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("The capacity must be at least 1");
+    }
+    int count = Integer.highestOneBit(Math.max(1, Math.min(SEGMENTS, capacity / SEGMENTS)));
+    this.segments = new Segment[count];
+    for (int i = 0; i < count; i++) {
+      this.segments[i] = new Segment(capacity / count + (i < capacity % count ? 1 : 0));
+    }
+  }
+
+  public long getEvictions() {
+    return this.evictions.sum();
+  }
+
+  /**
+   * @return the share of lookups that found a solution, from 0 to 1
+   */
+  public double getHitRate() {
+    long hits = this.hits.sum();
+    long lookups = hits + this.misses.sum();
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+
+  public long getHits() {
+    return this.hits.sum();
+  }
+
+  public long getMisses() {
+    return this.misses.sum();
+  }
+
+  /**
+   * @return the number of solutions kept
+   */
+  public int size() {
+    int size = 0;
+    for (Segment segment : this.segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Fills in the board from the cache, or with a {@link Solver} if it has not
+   * been seen before.
+   *
+   * @return true if the board was solved, false if it has no solution, in
+   *     which case it is left unchanged
+   */
+  public boolean solve(Board board) {
+    return this.solve(board, null) == SolveResult.Status.SOLVED;
+  }
+
+  /**
+   * Like {@link #solve(Board)}, but gives up on a puzzle it has to solve once
+   * the budget is spent, and then remembers nothing about it.
+   *
+   * @param budget null for no limits
+   */
+  public SolveResult.Status solve(Board board, Budget budget) {
+    CanonicalForm form = CanonicalForm.of(board);
+    Segment segment = this.segmentOf(form);
+    byte[] solution;
+    synchronized (segment) {
+      solution = segment.get(form);
+    }
+
+    if (solution != null) {
+      this.hits.increment();
+      if (solution == NO_SOLUTION) {
+        return SolveResult.Status.UNSOLVABLE;
+      }
+      form.restore(solution, board);
+      return SolveResult.Status.SOLVED;
+    }
+
+    this.misses.increment();
+    Solver solver = Solver.fromPool(this.solvers, board);
+    SolveResult.Status status;
+    try {
+      status = budget != null ? solver.solve(budget).getStatus()
+          : solver.solve() ? SolveResult.Status.SOLVED : SolveResult.Status.UNSOLVABLE;
+    } finally {
+      this.solvers.offer(solver);
+    }
+    if (status == SolveResult.Status.BUDGET_EXCEEDED) {
+      return status;
+    }
+    solution = status == SolveResult.Status.SOLVED ? form.rearrange(board) : NO_SOLUTION;
+    synchronized (segment) {
+      segment.put(form, solution);
+    }
+    return status;
+  }
+
+  /**
+   * Solves a 9x9 grid like {@link #solve(Board)}.
+   */
+  public boolean solve(Grid grid) {
+    Board board = new Board(Coordinate.SIZE);
+    grid.forEachCell((coordinate, cell) -> {
+      Digit contents = cell.getContents();
+      board.set(coordinate.getIndex(), contents == null ? 0 : contents.getValue());
+    });
+    if (!this.solve(board)) {
+      return false;
+    }
+    for (int cell = 0; cell < Coordinate.CELLS; cell++) {
+      grid.setCell(Coordinate.valueOf(cell), Digit.valueOf(board.get(cell)));
+    }
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%d hits, %d misses, %d evictions (%.1f%% hit rate)",
+        this.getHits(), this.getMisses(), this.getEvictions(), 100 * this.getHitRate());
+  }
+
+  private Segment segmentOf(CanonicalForm form) {
+    int hash = form.hashCode();
+    return this.segments[(hash ^ (hash >>> 16)) & (this.segments.length - 1)];
+  }
+
+
+  /**
+   * A map in access order, so its eldest entry is the least recently used.
+   */
+  private final class Segment extends LinkedHashMap<CanonicalForm, byte[]> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int capacity;
+
+    Segment(int capacity) {
+      super(16, 0.75f, true);
+      this.capacity = capacity;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<CanonicalForm, byte[]> eldest) {
+      if (this.size() <= this.capacity) {
+        return false;
+      }
+      SolutionCache.this.evictions.increment();
+      return true;
+    }
+  }
+}
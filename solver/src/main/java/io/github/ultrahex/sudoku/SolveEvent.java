@@ -0,0 +1,74 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Flight Recorder event for one call to {@link Solver#solve()}, committed
+ * only when {@link Statistics} are enabled and a recording asks for it.
+ *
+ * @author Matthew William Noel
+ */
+@Name("io.github.ultrahex.sudoku.Solve")
+@Label("Sudoku Solve")
+@Category("Sudoku")
+@Description("Solving one puzzle")
+final class SolveEvent extends Event {
+
+  @Label("Backtracks")
+  long backtracks;
+  @Label("Eliminations")
+  @Description("Candidates removed by deductions beyond singles")
+  long eliminations;
+  @Label("Guesses")
+  long guesses;
+  @Label("Hidden Singles")
+  long hiddenSingles;
+  @Label("Iterations")
+  long iterations;
+  @Label("Naked Singles")
+  long nakedSingles;
+  @Label("Size")
+  int size;
+  @Label("Solved")
+  boolean solved;
+
+  void commit(int size, boolean solved, Statistics statistics) {
+    if (!this.shouldCommit()) {
+      return;
+    }
+    this.size = size;
+    this.solved = solved;
+    this.backtracks = statistics.backtracks;
+    for (long count : statistics.eliminations) {
+      this.eliminations += count;
+    }
+    this.guesses = statistics.guesses;
+    this.hiddenSingles = statistics.hiddenSingles;
+    this.iterations = statistics.iterations;
+    this.nakedSingles = statistics.nakedSingles;
+    this.commit();
+  }
+}
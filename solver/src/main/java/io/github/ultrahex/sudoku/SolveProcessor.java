@@ -0,0 +1,246 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The processor of {@link AsyncSolver#processor(int)}.
+ * <p>
+ * A fixed window of puzzles is requested from upstream once both ends are
+ * subscribed, and each puzzle delivered downstream makes room for one more,
+ * so no more than the window is ever held, however slow the subscriber.
+ * Puzzles are solved as soon as they arrive, but their results wait in order
+ * for demand. Deliveries are made by whichever thread finds work to do, one
+ * thread at a time, and only once the subscriber's {@code onSubscribe} has
+ * returned. A subscriber that throws is treated as having cancelled.
+ *
+ * @author Matthew William Noel
+ */
+final class SolveProcessor implements Flow.Processor<Snapshot, SolveResult> {
+
+  private static final Logger logger = Logger.getLogger(SolveProcessor.class.getName());
+
+  private final AtomicLong demand = new AtomicLong();
+  private volatile boolean done;
+  /**
+   * From upstream, delivered after every result.
+   */
+  private volatile Throwable error;
+  /**
+   * Delivered straight away, dropping whatever results are left.
+   */
+  private volatile Throwable failure;
+  /*
+   * Set once the subscriber has been told the end, or has cancelled.
+   */
+  private volatile boolean finished;
+  private final ConcurrentLinkedQueue<CompletableFuture<SolveResult>> pending =
+      new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean started = new AtomicBoolean();
+  private final AsyncSolver solver;
+  /*
+   * Claimed by the first subscriber; deliveries wait for subscribed.
+   */
+  private final AtomicReference<Flow.Subscriber<? super SolveResult>> subscriber =
+      new AtomicReference<>();
+  private volatile boolean subscribed;
+  private final AtomicReference<Flow.Subscription> upstream = new AtomicReference<>();
+  private final int window;
+  /*
+   * Counts the calls to drain() still to be served, so only one runs at once.
+   */
+  private final AtomicInteger work = new AtomicInteger();
+
+  SolveProcessor(AsyncSolver solver, int window) {
+    if (window < 1) {
+      throw new IllegalArgumentException("The window must be at least 1");
+    }
+    this.solver = solver;
+    this.window = window;
+  }
+
+  @Override
+  public void onComplete() {
+    this.done = true;
+    this.drain();
+  }
+
+  @Override
+  public void onError(Throwable throwable) {
+    this.error = throwable;
+    this.done = true;
+    this.drain();
+  }
+
+  @Override
+  public void onNext(Snapshot puzzle) {
+    if (this.finished) {
+      return;
+    }
+    CompletableFuture<SolveResult> result = this.solver.solveAsync(puzzle);
+    this.pending.add(result);
+    result.whenComplete((value, ex) -> this.drain());
+  }
+
+  @Override
+  public void onSubscribe(Flow.Subscription subscription) {
+    if (!this.upstream.compareAndSet(null, subscription)) {
+      subscription.cancel();
+      return;
+    }
+    this.start();
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super SolveResult> subscriber) {
+    if (!this.subscriber.compareAndSet(null, subscriber)) {
+      subscriber.onSubscribe(new Flow.Subscription() {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+      });
+      subscriber.onError(new IllegalStateException("Only one subscriber is allowed"));
+      return;
+    }
+    subscriber.onSubscribe(new Flow.Subscription() {
+      @Override
+      public void request(long n) {
+        if (n <= 0) {
+          SolveProcessor.this.fail(
+              new IllegalArgumentException("Demand must be positive, not " + n));
+          return;
+        }
+        SolveProcessor.this.demand.getAndAccumulate(n,
+            (current, more) -> current + more < 0 ? Long.MAX_VALUE : current + more);
+        SolveProcessor.this.drain();
+      }
+
+      @Override
+      public void cancel() {
+        SolveProcessor.this.cancel();
+      }
+    });
+    this.subscribed = true;
+    this.start();
+    this.drain();
+  }
+
+  private void cancel() {
+    this.finished = true;
+    this.cancelAll();
+  }
+
+  private void cancelAll() {
+    Flow.Subscription upstream = this.upstream.get();
+    if (upstream != null) {
+      upstream.cancel();
+    }
+    CompletableFuture<SolveResult> result;
+    while ((result = this.pending.poll()) != null) {
+      result.cancel(false);
+    }
+  }
+
+  /**
+   * Delivers every result that is ready and asked for, and the end of the
+   * stream once nothing is left.
+   */
+  private void drain() {
+    if (this.work.getAndIncrement() != 0) {
+      return;
+    }
+    do {
+      if (!this.subscribed || this.finished) {
+        continue;
+      }
+      try {
+        this.deliver(this.subscriber.get());
+      } catch (RuntimeException | Error ex) {
+        this.finished = true;
+        this.cancelAll();
+        logger.log(Level.WARNING, "The subscriber threw, so it is treated as cancelled", ex);
+      }
+    } while (this.work.decrementAndGet() != 0);
+  }
+
+  /*
+   * One pass of drain(), which catches whatever the subscriber throws.
+   */
+  private void deliver(Flow.Subscriber<? super SolveResult> subscriber) {
+    CompletableFuture<SolveResult> head;
+    while (this.failure == null && this.demand.get() > 0
+        && (head = this.pending.peek()) != null && head.isDone()) {
+      this.pending.poll();
+      SolveResult result;
+      try {
+        result = head.join();
+      } catch (RuntimeException ex) {
+        this.failure = ex.getCause() == null ? ex : ex.getCause();
+        this.cancelAll();
+        break;
+      }
+      this.demand.decrementAndGet();
+      subscriber.onNext(result);
+      if (!this.done && !this.finished) {
+        this.upstream.get().request(1);
+      }
+    }
+    if (this.failure != null) {
+      this.finished = true;
+      subscriber.onError(this.failure);
+    } else if (this.done && this.pending.isEmpty() && !this.finished) {
+      this.finished = true;
+      if (this.error == null) {
+        subscriber.onComplete();
+      } else {
+        subscriber.onError(this.error);
+      }
+    }
+  }
+
+  private void fail(Throwable throwable) {
+    this.failure = throwable;
+    this.cancelAll();
+    this.drain();
+  }
+
+  /*
+   * Asks upstream for the first window of puzzles, once both ends are there.
+   */
+  private void start() {
+    if (this.upstream.get() != null && this.subscribed
+        && this.started.compareAndSet(false, true)) {
+      this.upstream.get().request(this.window);
+    }
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+/**
+ * What came of a {@link Solver#solve(Budget)}.
+ *
+ * @author Matthew William Noel
+ */
+public final class SolveResult {
+
+  public enum Status {
+    SOLVED,
+    /**
+     * The puzzle has no solution.
+     */
+    UNSOLVABLE,
+    /**
+     * The solve ran out of time or nodes, or was cancelled, before it could
+     * tell.
+     */
+    BUDGET_EXCEEDED
+  }
+
+  private final Snapshot grid;
+  private final long nanos;
+  private final long nodes;
+  private final Statistics statistics;
+  private final Status status;
+
+  SolveResult(Status status, Snapshot grid, long nodes, long nanos,
+      Statistics statistics) {
+    this.status = status;
+    this.grid = grid;
+    this.nodes = nodes;
+    this.nanos = nanos;
+    this.statistics = statistics;
+  }
+
+  /**
+   * @return the solution if solved; if the budget was exceeded, the puzzle
+   *     with every digit that logic alone had placed by then, and no
+   *     guesses; if unsolvable, null
+   */
+  public Snapshot getGrid() {
+    return this.grid;
+  }
+
+  public long getNanos() {
+    return this.nanos;
+  }
+
+  /**
+   * @return the search nodes visited
+   */
+  public long getNodes() {
+    return this.nodes;
+  }
+
+  /**
+   * @return what this solve did, step by step, or null unless
+   *     {@link Statistics#ENABLED}
+   */
+  public Statistics getStatistics() {
+    return this.statistics;
+  }
+
+  public Status getStatus() {
+    return this.status;
+  }
+
+  public boolean isSolved() {
+    return this.status == Status.SOLVED;
+  }
+
+  @Override
+  public String toString() {
+    return this.status + " after " + this.nodes + " nodes in " + this.nanos + " ns";
+  }
+}
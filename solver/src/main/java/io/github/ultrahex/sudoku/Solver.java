@@ -0,0 +1,617 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Solves either a 9x9 {@link Grid} or a {@link Board} of any supported size.
+ * <p>
+ * A solver keeps its candidates and search stack between puzzles and is not
+ * thread safe, so each thread needs its own. Everything it reads that is not
+ * its own, the {@link Topology} tables and the strategies, is immutable and
+ * shared by every solver in the process, so a solver per thread costs only
+ * that per-puzzle state.
+ *
+ * @author Matthew William Noel
+ */
+public class Solver {
+
+  /**
+   * Applied in this order, cheapest first, once singles run dry. Inside the
+   * search only the first {@link #SEARCH_STRATEGIES} are used; past that point
+   * a guess is cheaper than the deduction.
+   */
+  static final Strategy[] STRATEGIES = {
+      new CandidateLines(),
+      new BoxLineReduction(),
+      new NakedSubsets(2),
+      new HiddenSubsets(2),
+      new Fish(2),
+      new NakedSubsets(3),
+      new HiddenSubsets(3),
+      new Fish(3)
+  };
+  static final int SEARCH_STRATEGIES = 4;
+  /*
+   * The clock is read on one budget check in this many.
+   */
+  private static final int CLOCK_MASK = 15;
+
+  private Board board;
+  /**
+   * Null unless solving with {@link #solve(Budget)}.
+   */
+  private Budget budget;
+  /*
+   * The copies the search works on, one for each level, kept from puzzle to
+   * puzzle so that a reused solver stops allocating.
+   */
+  private Candidates[] branches = new Candidates[0];
+  private Candidates candidates;
+  private boolean exceeded;
+  private boolean hasChanged;
+  /**
+   * The index of the hardest strategy that has made progress, or -1.
+   */
+  private int hardest = -1;
+  private long nodes;
+  private Grid puzzle;
+  private Candidates root;
+  private final Statistics statistics = new Statistics(STRATEGIES);
+  /**
+   * Set once any branch of a parallel search has found a solution, null when
+   * searching alone.
+   */
+  private final AtomicBoolean stop;
+  private int ticks;
+  private Topology topology;
+
+  public Solver(Board board) {
+    this.stop = null;
+    this.load(board);
+  }
+
+  public Solver(Grid puzzle) {
+    this.stop = null;
+    this.load(puzzle);
+  }
+
+  /**
+   * Creates a solver for one branch of a parallel search, which works on the
+   * candidates alone.
+   */
+  Solver(Candidates candidates, AtomicBoolean stop) {
+    this.board = null;
+    this.puzzle = null;
+    this.stop = stop;
+    this.topology = candidates.getTopology();
+    this.root = candidates;
+    this.candidates = candidates;
+  }
+
+  /**
+   * Counts the solutions of the puzzle, without filling it in. Every branch
+   * starts from the deductions made before it, and the search stops as soon
+   * as the limit is reached.
+   *
+   * @param limit the most solutions worth telling apart, at least 1
+   * @return the number of solutions, or the limit if there are at least as
+   *     many
+   */
+  public int countSolutions(int limit) {
+    if (limit < 1) {
+      throw new IllegalArgumentException("The limit must be at least 1");
+    }
+    if (!this.updateRegisters() || !this.propagate(STRATEGIES.length)) {
+      return 0;
+    }
+    return this.count(limit, 0);
+  }
+
+  /**
+   * @return what the last call to {@link #solve()} did, all zeros unless
+   *     {@link Statistics#ENABLED}
+   */
+  public Statistics getStatistics() {
+    return this.statistics;
+  }
+
+  public boolean isComplete() {
+    return this.puzzle == null ? this.board.isComplete() : this.puzzle.isComplete();
+  }
+
+  /**
+   * Fills in the puzzle, falling back to a depth-first search on the most
+   * constrained cell whenever logic alone stops making progress.
+   *
+   * @return true if the puzzle was solved, false if it has no solution, in
+   *     which case the puzzle is left unchanged
+   */
+  public boolean solve() {
+    return this.solve((ForkJoinPool) null);
+  }
+
+  /**
+   * Like {@link #solve()}, but splits the search among the threads of the
+   * pool, and stops every branch as soon as one of them finds a solution.
+   * Worth it only for puzzles that need a lot of guessing.
+   */
+  public boolean solve(ForkJoinPool pool) {
+    if (!Statistics.ENABLED) {
+      return this.solveAndWrite(pool);
+    }
+
+    SolveEvent event = new SolveEvent();
+    event.begin();
+    this.statistics.clear();
+    long start = System.nanoTime();
+    boolean solved = this.solveAndWrite(pool);
+    this.statistics.nanos = System.nanoTime() - start;
+    Metrics.record(this.statistics, solved);
+    event.commit(this.topology.size, solved, this.statistics);
+    return solved;
+  }
+
+  /**
+   * Like {@link #solve()}, but gives up once the budget is spent, checking it
+   * at every search node and every pass of deductions.
+   *
+   * @return whether the puzzle was solved, found to have no solution, or ran
+   *     out of budget, in which cases it is left unchanged
+   */
+  public SolveResult solve(Budget budget) {
+    this.budget = budget;
+    this.exceeded = false;
+    this.nodes = 0;
+    this.ticks = 0;
+    long start = System.nanoTime();
+    try {
+      boolean solved = this.solve();
+      long nanos = System.nanoTime() - start;
+      Statistics statistics = Statistics.ENABLED ? new Statistics(this.statistics) : null;
+      if (solved) {
+        return new SolveResult(SolveResult.Status.SOLVED, this.snapshot(), this.nodes, nanos,
+            statistics);
+      }
+      return this.exceeded
+          ? new SolveResult(SolveResult.Status.BUDGET_EXCEEDED, this.snapshot(), this.nodes,
+              nanos, statistics)
+          : new SolveResult(SolveResult.Status.UNSOLVABLE, null, this.nodes, nanos, statistics);
+    } finally {
+      this.budget = null;
+    }
+  }
+
+  /**
+   * Grades the puzzle by the hardest deduction needed to solve it, without
+   * filling it in.
+   *
+   * @return the difficulty, or null if the puzzle has no solution
+   */
+  public Difficulty rate() {
+    this.reset();
+    this.hardest = -1;
+    if (!this.updateRegisters() || !this.propagate(STRATEGIES.length)) {
+      return null;
+    }
+    if (!this.candidates.isComplete()) {
+      return Difficulty.EXPERT;
+    }
+    return this.hardest < 0 ? Difficulty.EASY : STRATEGIES[this.hardest].getDifficulty();
+  }
+
+  /**
+   * Moves on to another puzzle. The solver keeps what it has allocated as long
+   * as the puzzles stay the same size, so a solver per thread can work
+   * through any number of them without allocating.
+   */
+  public void load(Board board) {
+    this.board = board;
+    this.puzzle = null;
+    this.setTopology(board.getTopology());
+  }
+
+  /**
+   * Moves on to candidates worked out elsewhere, which {@link #propagate(int)}
+   * and {@link #search()} then work on directly. There is no puzzle to write
+   * the solution to; it is left in {@link #getCandidates()}.
+   */
+  void load(Candidates candidates) {
+    this.board = null;
+    this.puzzle = null;
+    if (candidates.getTopology() != this.topology) {
+      this.topology = candidates.getTopology();
+      this.branches = new Candidates[0];
+    }
+    this.root = candidates;
+    this.candidates = candidates;
+  }
+
+  /**
+   * Moves on to another puzzle, like {@link #load(Board)}.
+   */
+  public void load(Grid puzzle) {
+    this.board = null;
+    this.puzzle = puzzle;
+    this.setTopology(Coordinate.TOPOLOGY);
+  }
+
+  /**
+   * @return the solver the thread keeps in the holder, loaded with the board,
+   *     or a new one the first time
+   */
+  static Solver forThread(ThreadLocal<Solver> solvers, Board board) {
+    Solver solver = solvers.get();
+    if (solver == null) {
+      solver = new Solver(board);
+      solvers.set(solver);
+    } else {
+      solver.load(board);
+    }
+    return solver;
+  }
+
+  /**
+   * Takes a solver from a pool shared between threads, which suits virtual
+   * threads: they are never reused, so a thread local would never be warm.
+   * Offer the solver back to the pool once done with it.
+   *
+   * @return an idle solver loaded with the board, or a new one if none is
+   *     idle
+   */
+  static Solver fromPool(Queue<Solver> solvers, Board board) {
+    Solver solver = solvers.poll();
+    if (solver == null) {
+      solver = new Solver(board);
+    } else {
+      solver.load(board);
+    }
+    return solver;
+  }
+
+  /**
+   * Forgets everything worked out so far, so that the puzzle is read again
+   * on the next call, for instance after it was changed.
+   */
+  public void reset() {
+    this.root.reset();
+    this.candidates = this.root;
+  }
+
+  @Override
+  public String toString() {
+    return this.puzzle == null ? this.board.toString() : this.puzzle.toString();
+  }
+
+  /**
+   * @return true if the puzzle has exactly one solution
+   */
+  public boolean hasUniqueSolution() {
+    return this.countSolutions(2) == 1;
+  }
+
+  /*
+   * Like search(), but carries on past a solution until the limit is reached.
+   */
+  private int count(int limit, int depth) {
+    int cell = this.mostConstrainedCell();
+    if (cell == -1) {
+      return 1;
+    }
+
+    Candidates branchPoint = this.candidates;
+    int mask = branchPoint.getMask(cell);
+    int found = 0;
+    while (mask != 0 && found < limit) {
+      int bit = Integer.lowestOneBit(mask);
+      mask ^= bit;
+
+      this.candidates = this.branch(depth, branchPoint);
+      this.place(cell, Integer.numberOfTrailingZeros(bit));
+      if (this.propagate(SEARCH_STRATEGIES)) {
+        found += this.count(limit - found, depth + 1);
+      }
+    }
+    this.candidates = branchPoint;
+    return found;
+  }
+
+  /**
+   * @return the copy of the candidates to work on at this depth of the search
+   */
+  private Candidates branch(int depth, Candidates from) {
+    if (depth == this.branches.length) {
+      this.branches = Arrays.copyOf(this.branches, Math.max(8, 2 * depth));
+    }
+    Candidates branch = this.branches[depth];
+    if (branch == null) {
+      branch = new Candidates(from);
+      this.branches[depth] = branch;
+    } else {
+      branch.copyFrom(from);
+    }
+    return branch;
+  }
+
+  /**
+   * @return the ordinal of the digit given in the cell, or -1 if it is blank
+   */
+  private int given(int cell) {
+    if (this.puzzle == null) {
+      return this.board.get(cell) - 1;
+    }
+    Digit contents = this.puzzle.getCell(Coordinate.valueOf(cell)).getContents();
+    return contents == null ? -1 : contents.ordinal();
+  }
+
+  Candidates getCandidates() {
+    return this.candidates;
+  }
+
+  /**
+   * @return the unfilled cell with the fewest candidates, or -1 if every cell
+   *     is filled
+   */
+  int mostConstrainedCell() {
+    return this.candidates.mostConstrainedCell();
+  }
+
+  /**
+   * @return true if the budget is spent, in which case it stays spent until
+   *     the next solve
+   */
+  private boolean isOverBudget() {
+    if (!this.exceeded) {
+      this.exceeded = this.budget.isExceeded(this.nodes, (this.ticks++ & CLOCK_MASK) == 0);
+    }
+    return this.exceeded;
+  }
+
+  private void place(int cell, int digit) {
+    this.candidates.place(cell, digit);
+    this.hasChanged = true;
+  }
+
+  /**
+   * @param strategies how many of the {@link #STRATEGIES} to use
+   * @return false if the candidates contradict each other
+   */
+  boolean propagate(int strategies) {
+    this.hasChanged = true;
+    while (this.hasChanged) {
+      this.hasChanged = false;
+      if (!this.candidates.isValid()) {
+        return false;
+      }
+      if (this.candidates.isComplete()) {
+        return true;
+      }
+      if (this.budget != null && this.isOverBudget()) {
+        return false;
+      }
+      if (Statistics.ENABLED) {
+        this.statistics.iterations++;
+      }
+
+      this.singleCandidate();
+      if (this.hasChanged) {
+        continue;
+      }
+
+      for (int i = 0; i < strategies; i++) {
+        int eliminated = STRATEGIES[i].apply(this.candidates);
+        if (eliminated > 0) {
+          if (Statistics.ENABLED) {
+            this.statistics.eliminations[i] += eliminated;
+          }
+          this.hasChanged = true;
+          this.hardest = Math.max(this.hardest, i);
+          break;
+        }
+      }
+    }
+    return true;
+  }
+
+  boolean search() {
+    return this.search(0);
+  }
+
+  /*
+   * Each branch works on its own copy of the candidates, so backing out of a
+   * dead end is just a matter of dropping the copy.
+   */
+  private boolean search(int depth) {
+    if (this.stop != null && this.stop.get()) {
+      return false;
+    }
+    if (this.budget != null) {
+      this.nodes++;
+      if (this.isOverBudget()) {
+        return false;
+      }
+    }
+    int cell = this.mostConstrainedCell();
+    if (cell == -1) {
+      return true;
+    }
+
+    Candidates branchPoint = this.candidates;
+    int mask = branchPoint.getMask(cell);
+    while (mask != 0) {
+      int bit = Integer.lowestOneBit(mask);
+      mask ^= bit;
+
+      this.candidates = this.branch(depth, branchPoint);
+      this.place(cell, Integer.numberOfTrailingZeros(bit));
+      if (Statistics.ENABLED) {
+        this.statistics.guesses++;
+      }
+      if (this.propagate(SEARCH_STRATEGIES) && this.search(depth + 1)) {
+        return true;
+      }
+      if (this.exceeded) {
+        break;
+      }
+      if (Statistics.ENABLED) {
+        this.statistics.backtracks++;
+      }
+    }
+    this.candidates = branchPoint;
+    return false;
+  }
+
+  /**
+   * @return the digits placed in the candidates, once the search has backed
+   *     out to them
+   */
+  private Snapshot snapshot() {
+    byte[] cells = new byte[this.topology.cells];
+    int filled = 0;
+    for (int cell = 0; cell < cells.length; cell++) {
+      cells[cell] = (byte) (this.candidates.getValue(cell) + 1);
+      filled += cells[cell] == 0 ? 0 : 1;
+    }
+    return new Snapshot(this.topology, cells, filled);
+  }
+
+  private void setTopology(Topology topology) {
+    if (topology != this.topology) {
+      this.topology = topology;
+      this.root = new Candidates(topology);
+      this.branches = new Candidates[0];
+    } else {
+      this.root.reset();
+    }
+    this.candidates = this.root;
+  }
+
+  /*
+   * The solver proper; solve() only wraps it in the bookkeeping.
+   */
+  private boolean solveAndWrite(ForkJoinPool pool) {
+    if (!this.updateRegisters() || !this.propagate(STRATEGIES.length)) {
+      return false;
+    }
+    if (pool == null) {
+      if (!this.search()) {
+        return false;
+      }
+    } else {
+      Candidates solution = pool.invoke(
+          new ParallelSearch(this.candidates, new AtomicBoolean(), this.statistics));
+      if (solution == null) {
+        return false;
+      }
+      this.candidates = solution;
+    }
+
+    for (int cell = 0; cell < this.topology.cells; cell++) {
+      int digit = this.candidates.getValue(cell);
+      if (this.puzzle == null) {
+        this.board.set(cell, digit + 1);
+      } else {
+        this.puzzle.setCell(Coordinate.valueOf(cell), Digit.fromOrdinal(digit));
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Places hidden and naked singles in every unit that changed since the last
+   * pass.
+   */
+  void singleCandidate() {
+    for (int word = 0; word < this.candidates.getChangedUnitWords(); word++) {
+      long units = this.candidates.takeChangedUnits(word);
+      while (units != 0) {
+        if (!this.candidates.isValid()) {
+          return;
+        }
+        this.singleCandidate((word << 6) + Long.numberOfTrailingZeros(units));
+        units &= units - 1;
+      }
+    }
+  }
+
+  private void singleCandidate(int unit) {
+    Topology topology = this.topology;
+    if (this.candidates.getPlaced(unit) == topology.all) {
+      return;
+    }
+
+    int[] cells = topology.units[unit];
+    int once = 0;
+    int twice = 0;
+    for (int cell : cells) {
+      int mask = this.candidates.getMask(cell);
+      if (mask != 0 && (mask & (mask - 1)) == 0) {
+        this.place(cell, Integer.numberOfTrailingZeros(mask));
+        if (Statistics.ENABLED) {
+          this.statistics.nakedSingles++;
+        }
+        continue;
+      }
+      twice |= once & mask;
+      once |= mask;
+    }
+
+    if ((once | this.candidates.getPlaced(unit)) != topology.all) {
+      this.candidates.markInvalid();
+      return;
+    }
+
+    int singles = once & ~twice;
+    while (singles != 0) {
+      int bit = Integer.lowestOneBit(singles);
+      singles ^= bit;
+      for (int cell : cells) {
+        if ((this.candidates.getMask(cell) & bit) != 0) {
+          this.place(cell, Integer.numberOfTrailingZeros(bit));
+          if (Statistics.ENABLED) {
+            this.statistics.hiddenSingles++;
+          }
+          break;
+        }
+      }
+    }
+  }
+
+  /**
+   * @return false if the givens already conflict with each other
+   */
+  boolean updateRegisters() {
+    for (int cell = 0; cell < this.topology.cells; cell++) {
+      int given = this.given(cell);
+      if (given >= 0 && !this.candidates.isPlaced(cell)) {
+        if ((this.candidates.getMask(cell) & (1 << given)) == 0) {
+          return false;
+        }
+        this.candidates.place(cell, given);
+      }
+    }
+    return true;
+  }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * What a {@link Solver} did to reach its answer.
+ * <p>
+ * Counting is off unless the {@value #PROPERTY} system property is set to
+ * true when the class is first used. The flag is a constant, so with counting
+ * off the JIT drops the bookkeeping entirely and every count stays zero.
+ *
+ * @author Matthew William Noel
+ */
+public final class Statistics {
+
+  public static final String PROPERTY = "sudoku.statistics";
+  public static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+
+  long backtracks;
+  /**
+   * Candidates removed by each of the strategies.
+   */
+  final long[] eliminations;
+  long guesses;
+  long hiddenSingles;
+  long iterations;
+  long nakedSingles;
+  long nanos;
+  private final Strategy[] strategies;
+
+  Statistics(Strategy[] strategies) {
+    this.eliminations = new long[strategies.length];
+    this.strategies = strategies;
+  }
+
+  /**
+   * A copy that later solves do not change.
+   */
+  Statistics(Statistics other) {
+    this.backtracks = other.backtracks;
+    this.eliminations = other.eliminations.clone();
+    this.guesses = other.guesses;
+    this.hiddenSingles = other.hiddenSingles;
+    this.iterations = other.iterations;
+    this.nakedSingles = other.nakedSingles;
+    this.nanos = other.nanos;
+    this.strategies = other.strategies;
+  }
+
+  /**
+   * @return the guesses that led to a contradiction
+   */
+  public long getBacktracks() {
+    return this.backtracks;
+  }
+
+  /**
+   * @return the candidates removed by each deduction beyond singles, in the
+   *     order the solver tries them
+   */
+  public Map<String, Long> getEliminations() {
+    Map<String, Long> eliminations = new LinkedHashMap<>();
+    for (int i = 0; i < this.strategies.length; i++) {
+      eliminations.put(this.strategies[i].getName(), this.eliminations[i]);
+    }
+    return Collections.unmodifiableMap(eliminations);
+  }
+
+  /**
+   * @return the digits tried by the search
+   */
+  public long getGuesses() {
+    return this.guesses;
+  }
+
+  /**
+   * @return the digits placed because no other cell in a unit could take them
+   */
+  public long getHiddenSingles() {
+    return this.hiddenSingles;
+  }
+
+  /**
+   * @return the rounds of logical deduction
+   */
+  public long getIterations() {
+    return this.iterations;
+  }
+
+  /**
+   * @return the digits placed because they were the last candidate of a cell
+   */
+  public long getNakedSingles() {
+    return this.nakedSingles;
+  }
+
+  public long getNanos() {
+    return this.nanos;
+  }
+
+  void add(Statistics other) {
+    this.backtracks += other.backtracks;
+    for (int i = 0; i < this.eliminations.length; i++) {
+      this.eliminations[i] += other.eliminations[i];
+    }
+    this.guesses += other.guesses;
+    this.hiddenSingles += other.hiddenSingles;
+    this.iterations += other.iterations;
+    this.nakedSingles += other.nakedSingles;
+  }
+
+  void clear() {
+    this.backtracks = 0;
+    Arrays.fill(this.eliminations, 0);
+    this.guesses = 0;
+    this.hiddenSingles = 0;
+    this.iterations = 0;
+    this.nakedSingles = 0;
+    this.nanos = 0;
+  }
+
+  @Override
+  public String toString() {
+    return "iterations=" + this.iterations + ", nakedSingles=" + this.nakedSingles
+        + ", hiddenSingles=" + this.hiddenSingles + ", eliminations="
+        + this.getEliminations() + ", guesses=" + this.guesses + ", backtracks="
+        + this.backtracks + ", nanos=" + this.nanos;
+  }
+}
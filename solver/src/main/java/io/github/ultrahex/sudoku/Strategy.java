@@ -0,0 +1,57 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+/**
+ * A deduction that removes candidates without guessing. The solver tries its
+ * strategies in order, cheapest first, and goes back to singles as soon as
+ * one of them makes progress.
+ * <p>
+ * Strategies keep no state between calls, so a single instance of each is
+ * shared by every solver.
+ *
+ * @author Matthew William Noel
+ */
+interface Strategy {
+
+  /**
+   * @return the next larger set with the same number of bits (Gosper's hack)
+   */
+  static int nextCombination(int combination) {
+    int lowest = combination & -combination;
+    int ripple = combination + lowest;
+    return ripple | (((combination ^ ripple) >>> 2) / lowest);
+  }
+
+  /**
+   * @return the number of candidates removed
+   */
+  int apply(Candidates candidates);
+
+  /**
+   * @return the difficulty of a puzzle that needs this deduction
+   */
+  Difficulty getDifficulty();
+
+  /**
+   * @return a short name for statistics
+   */
+  String getName();
+}
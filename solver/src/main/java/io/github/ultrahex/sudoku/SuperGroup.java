@@ -19,6 +19,7 @@
 
 package io.github.ultrahex.sudoku;
 
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Objects;
 import java.util.function.BiConsumer;
@@ -28,18 +29,15 @@ import java.util.function.BiConsumer;
  */
 public class SuperGroup {
 
-  private final LinkedHashMap<Digit, Group> groups =
-      new LinkedHashMap<>(Digit.values().length);
+  private final Group[] groups;
 
   public SuperGroup(Group[] groups) {
-    if (groups.length != Digit.values().length) {
+    if (groups.length != Digit.COUNT) {
       throw new IllegalArgumentException(
-          "SuperGroups must contain exactly " + Digit.values().length
+          "SuperGroups must contain exactly " + Digit.COUNT
               + " Groups");
     }
-    for (int i = 0; i < groups.length; i++) {
-      this.groups.put(Digit.values()[i], groups[i]);
-    }
+    this.groups = groups.clone();
   }
 
   @Override
@@ -48,26 +46,34 @@ public class SuperGroup {
       return false;
     }
     final SuperGroup other = (SuperGroup) obj;
-    return Objects.equals(this.groups, other.groups);
+    return Arrays.equals(this.groups, other.groups);
   }
 
   public void forEach(BiConsumer<? super Digit, ? super Group> action) {
-    this.groups.forEach(action);
+    for (int i = 0; i < this.groups.length; i++) {
+      action.accept(Digit.fromOrdinal(i), this.groups[i]);
+    }
   }
 
   public Group getGroup(Digit digit) {
-    return this.groups.get(digit);
+    return this.groups[digit.ordinal()];
   }
 
-  @SuppressWarnings("unchecked")
   public LinkedHashMap<Digit, Group> getGroups() {
-    return (LinkedHashMap<Digit, Group>) this.groups.clone();
+    LinkedHashMap<Digit, Group> groups = new LinkedHashMap<>(Digit.COUNT);
+    this.forEach(groups::put);
+    return groups;
   }
 
   @Override
   public int hashCode() {
+    // The hash of getGroups(), summed as Map.hashCode() would.
+    int groups = 0;
+    for (int i = 0; i < this.groups.length; i++) {
+      groups += Digit.fromOrdinal(i).hashCode() ^ Objects.hashCode(this.groups[i]);
+    }
     int hash = 7;
-    hash = 89 * hash + Objects.hashCode(this.groups);
+    hash = 89 * hash + groups;
     return hash;
   }
 }
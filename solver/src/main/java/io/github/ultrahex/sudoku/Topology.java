@@ -0,0 +1,174 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+/**
+ * Immutable layout of a board whose boxes are {@code root} cells on a side:
+ * which cells make up each row, column and box, and which cells see each
+ * other.
+ * <p>
+ * Cells are indexed row major. Units are numbered rows first, then columns,
+ * then boxes, so on a 9x9 board:
+ * <pre>
+ * 0 - 8    rows
+ * 9 - 17   columns
+ * 18 - 26  boxes
+ * </pre>
+ * <p>
+ * There is one topology for each box size, built when the class is loaded.
+ * Its tables are never written after construction and are only reached
+ * through final fields, so every board, grid and solver of that size shares
+ * them, on any number of threads, without locking.
+ *
+ * @author Matthew William Noel
+ */
+final class Topology {
+
+  static final int MAX_ROOT = 5;
+  static final int MIN_ROOT = 2;
+
+  private static final Topology[] TOPOLOGIES = new Topology[MAX_ROOT + 1];
+
+  static {
+    for (int root = MIN_ROOT; root <= MAX_ROOT; root++) {
+      TOPOLOGIES[root] = new Topology(root);
+    }
+  }
+
+  /**
+   * @param root the side of a box, from 2 to 5
+   */
+  static Topology of(int root) {
+    if (root < MIN_ROOT || root > MAX_ROOT) {
+      throw new IllegalArgumentException("Boxes must be between " + MIN_ROOT
+          + " and " + MAX_ROOT + " cells on a side");
+    }
+    return TOPOLOGIES[root];
+  }
+
+  /**
+   * @param size the side of the board, a square from 4 to 25
+   */
+  static Topology ofSize(int size) {
+    int root = (int) Math.round(Math.sqrt(size));
+    if (root * root != size) {
+      throw new IllegalArgumentException(size + " is not a square board size");
+    }
+    return of(root);
+  }
+
+  /**
+   * The candidate mask with every digit set.
+   */
+  final int all;
+  /**
+   * For every cell, the units a placement there can change, in the layout of
+   * {@link #unitBits}.
+   */
+  final long[] affectedUnits;
+  /**
+   * For every cell, the boxes a placement there can change.
+   */
+  final int[] affectedBoxes;
+  final int[] boxOf;
+  final int cells;
+  final int[] columnOf;
+  final int[][] peers;
+  final int root;
+  final int[] rowOf;
+  final int size;
+  /**
+   * For every cell, the bits of its row, column and box units, laid out as
+   * {@link #unitWords} consecutive words of 64 units each.
+   */
+  final long[] unitBits;
+  final int unitWords;
+  final int[][] units;
+
+  private Topology(int root) {
+    this.root = root;
+    this.size = root * root;
+    this.cells = this.size * this.size;
+    this.all = (1 << this.size) - 1;
+    this.rowOf = new int[this.cells];
+    this.columnOf = new int[this.cells];
+    this.boxOf = new int[this.cells];
+    this.units = new int[3 * this.size][this.size];
+    this.unitWords = (this.units.length + 63) >>> 6;
+    this.unitBits = new long[this.cells * this.unitWords];
+    this.peers = new int[this.cells][3 * (this.size - 1) - 2 * (root - 1)];
+
+    // Speciosa mathematica. Math is beautiful.
+    for (int cell = 0; cell < this.cells; cell++) {
+      int row = cell / this.size;
+      int column = cell % this.size;
+      int box = root * (row / root) + column / root;
+      int number = root * (row % root) + column % root;
+
+      this.rowOf[cell] = row;
+      this.columnOf[cell] = column;
+      this.boxOf[cell] = box;
+      this.units[row][column] = cell;
+      this.units[this.size + column][row] = cell;
+      this.units[2 * this.size + box][number] = cell;
+
+      int offset = cell * this.unitWords;
+      for (int unit : new int[] {row, this.columnUnit(column), this.boxUnit(box)}) {
+        this.unitBits[offset + (unit >>> 6)] |= 1L << unit;
+      }
+    }
+
+    for (int cell = 0; cell < this.cells; cell++) {
+      int count = 0;
+      for (int other = 0; other < this.cells; other++) {
+        if (other != cell && (this.rowOf[other] == this.rowOf[cell]
+            || this.columnOf[other] == this.columnOf[cell]
+            || this.boxOf[other] == this.boxOf[cell])) {
+          this.peers[cell][count++] = other;
+        }
+      }
+    }
+
+    this.affectedUnits = new long[this.unitBits.length];
+    this.affectedBoxes = new int[this.cells];
+    for (int cell = 0; cell < this.cells; cell++) {
+      this.affectedBoxes[cell] = 1 << this.boxOf[cell];
+      for (int word = 0; word < this.unitWords; word++) {
+        this.affectedUnits[cell * this.unitWords + word] =
+            this.unitBits[cell * this.unitWords + word];
+      }
+      for (int peer : this.peers[cell]) {
+        this.affectedBoxes[cell] |= 1 << this.boxOf[peer];
+        for (int word = 0; word < this.unitWords; word++) {
+          this.affectedUnits[cell * this.unitWords + word] |=
+              this.unitBits[peer * this.unitWords + word];
+        }
+      }
+    }
+  }
+
+  int boxUnit(int box) {
+    return 2 * this.size + box;
+  }
+
+  int columnUnit(int column) {
+    return this.size + column;
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link Kernel} with the Vector API, as many cells at a time as the CPU has
+ * lanes for. Only loaded through {@link Kernel#vector()}, so that JVMs
+ * without the module never see it.
+ *
+ * @author Matthew William Noel
+ */
+final class VectorKernel extends Kernel {
+
+  private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+  /*
+   * Population count of every lane, since the Vector API of Java 17 has no
+   * such operator.
+   */
+  private static IntVector bitCount(IntVector v) {
+    v = v.sub(v.lanewise(VectorOperators.LSHR, 1).and(0x55555555));
+    v = v.and(0x33333333).add(v.lanewise(VectorOperators.LSHR, 2).and(0x33333333));
+    v = v.add(v.lanewise(VectorOperators.LSHR, 4)).and(0x0f0f0f0f);
+    return v.mul(0x01010101).lanewise(VectorOperators.LSHR, 24);
+  }
+
+  @Override
+  int mostConstrainedCell(int[] masks) {
+    int best = -1;
+    int bestCount = Integer.MAX_VALUE;
+    int bound = SPECIES.loopBound(masks.length);
+    int cell = 0;
+    for (; cell < bound; cell += SPECIES.length()) {
+      IntVector vector = IntVector.fromArray(SPECIES, masks, cell);
+      VectorMask<Integer> open = vector.compare(VectorOperators.NE, 0);
+      if (!open.anyTrue()) {
+        continue;
+      }
+      IntVector counts = bitCount(vector);
+      VectorMask<Integer> few = counts.compare(VectorOperators.LE, 2).and(open);
+      if (few.anyTrue()) {
+        return cell + few.firstTrue();
+      }
+      int fewest = counts.reduceLanes(VectorOperators.MIN, open);
+      if (fewest < bestCount) {
+        bestCount = fewest;
+        best = cell + counts.compare(VectorOperators.EQ, fewest).and(open).firstTrue();
+      }
+    }
+    return mostConstrainedCell(masks, cell, best, bestCount);
+  }
+
+  @Override
+  public String toString() {
+    return "vector (" + SPECIES.length() + " lanes)";
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.ultrahex.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * How {@link Solver#solve(Budget)} reports each way a solve can end, and
+ * what it leaves behind when the budget runs out.
+ *
+ * @author Matthew William Noel
+ */
+class BudgetTest {
+
+  /*
+   * Needs 15 search nodes.
+   */
+  private static final String HARD =
+      "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..";
+
+  /*
+   * The same with a wrong digit in the third row, which takes 77 search
+   * nodes to rule out.
+   */
+  private static final String WRONG =
+      "8.........136......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..";
+
+  /*
+   * Needs 162 search nodes and tens of milliseconds.
+   */
+  private static final String LARGE =
+      "....1..6..EG.7.26.B..E...3278.FAD.5E.2.98FA..1.....2...8...1DG...8A.....1....925"
+      + ".92.83A7...6...........G7.....CF......E..2.....3BE...D.5..9AFC48.......B5.D23...."
+      + ".GDA.73.48CB..6.A7..84...6E.2GD....51.E.9G....7...G..8A.6.......F..B4..ED.5..9.E5"
+      + "D.3..2...FCB6.";
+
+  @Test
+  void solved() {
+    Board board = Board.parse(HARD);
+    SolveResult result = new Solver(board).solve(Budget.unlimited());
+    assertEquals(SolveResult.Status.SOLVED, result.getStatus());
+    assertTrue(result.isSolved());
+    assertTrue(result.getGrid().isComplete());
+    assertEquals(board.snapshot(), result.getGrid());
+    assertEquals(15, result.getNodes());
+  }
+
+  @Test
+  void unsolvable() {
+    Board board = Board.parse(WRONG);
+    SolveResult result = new Solver(board).solve(Budget.unlimited());
+    assertEquals(SolveResult.Status.UNSOLVABLE, result.getStatus());
+    assertNull(result.getGrid());
+    assertEquals(77, result.getNodes());
+    assertEquals(WRONG, board.snapshot().toLine());
+  }
+
+  @Test
+  void nodeLimitStopsTheSearch() {
+    for (String puzzle : new String[] {HARD, WRONG}) {
+      Board board = Board.parse(puzzle);
+      SolveResult result = new Solver(board).solve(new Budget(null, 3));
+      assertEquals(SolveResult.Status.BUDGET_EXCEEDED, result.getStatus());
+      assertEquals(4, result.getNodes());
+      assertEquals(puzzle, board.snapshot().toLine());
+    }
+  }
+
+  @Test
+  void nodeLimitIsEnough() {
+    assertEquals(SolveResult.Status.SOLVED,
+        new Solver(Board.parse(HARD)).solve(new Budget(null, 15)).getStatus());
+    assertEquals(SolveResult.Status.UNSOLVABLE,
+        new Solver(Board.parse(WRONG)).solve(new Budget(null, 77)).getStatus());
+  }
+
+  /*
+   * Whatever the search had guessed when the budget ran out, the snapshot
+   * holds only what the deductions placed before it started.
+   */
+  @Test
+  void partialSnapshotHoldsNoGuesses() {
+    Solver deductions = new Solver(Board.parse(HARD));
+    deductions.rate();
+    Candidates candidates = deductions.getCandidates();
+
+    for (long nodes = 1; nodes < 15; nodes++) {
+      SolveResult result = new Solver(Board.parse(HARD)).solve(new Budget(null, nodes));
+      assertEquals(SolveResult.Status.BUDGET_EXCEEDED, result.getStatus());
+      Snapshot partial = result.getGrid();
+      for (int cell = 0; cell < HARD.length(); cell++) {
+        assertEquals(candidates.getValue(cell) + 1, partial.get(cell / 9, cell % 9),
+            "cell " + cell + " with a limit of " + nodes);
+      }
+    }
+  }
+
+  @Test
+  void cancelledBeforeTheSolve() {
+    Budget budget = Budget.unlimited();
+    budget.cancel();
+    assertTrue(budget.isCancelled());
+    SolveResult result = new Solver(Board.parse(HARD)).solve(budget);
+    assertEquals(SolveResult.Status.BUDGET_EXCEEDED, result.getStatus());
+    assertEquals(0, result.getNodes());
+    assertEquals(Board.parse(HARD).snapshot(), result.getGrid());
+  }
+
+  /*
+   * A single solve is over too quickly to cancel part way through for sure,
+   * so the same budget is spent on one solve after another until the cancel
+   * from this thread is seen.
+   */
+  @Test
+  void cancelledFromAnotherThread() throws Exception {
+    Budget budget = Budget.unlimited();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<SolveResult> future = executor.submit(() -> {
+        Solver solver = new Solver(Board.parse(LARGE));
+        SolveResult result;
+        do {
+          solver.load(Board.parse(LARGE));
+          result = solver.solve(budget);
+        } while (result.isSolved());
+        return result;
+      });
+      Thread.sleep(20);
+      budget.cancel();
+      assertEquals(SolveResult.Status.BUDGET_EXCEEDED,
+          future.get(10, TimeUnit.SECONDS).getStatus());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void negativeNodeLimit() {
+    assertThrows(IllegalArgumentException.class, () -> new Budget(null, -1));
+  }
+}
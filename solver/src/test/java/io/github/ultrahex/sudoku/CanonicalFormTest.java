@@ -0,0 +1,168 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.ultrahex.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * That copies of a puzzle under the symmetries of sudoku share a
+ * {@link CanonicalForm}, and that a solution found for the form maps back
+ * onto each of them.
+ *
+ * @author Matthew William Noel
+ */
+class CanonicalFormTest {
+
+  static final String[] PUZZLES = {
+      "4.....8.5.3..........7......2.....6.....8.4......1.......6.3.7.5..2.....1.4......",
+      "52...6.........7.13...........4..8..6......5...........418.........3..2...87.....",
+      "6.....8.3.4.7.................5.4.7.3..2.....1.6.......2.....5.....8.6......1....",
+      "48.3............71.2.......7.5....6....2..8.............1.76...3.....4......5....",
+      "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4.."
+  };
+
+  /*
+   * The order of three bands and of the three lines in each.
+   */
+  private static int[] lines(Random random) {
+    int[] chutes = shuffled(random, 3);
+    int[] lines = new int[9];
+    for (int chute = 0; chute < 3; chute++) {
+      int[] within = shuffled(random, 3);
+      for (int line = 0; line < 3; line++) {
+        lines[chute * 3 + line] = chutes[chute] * 3 + within[line];
+      }
+    }
+    return lines;
+  }
+
+  private static int[] shuffled(Random random, int count) {
+    int[] values = new int[count];
+    for (int i = 0; i < count; i++) {
+      int j = random.nextInt(i + 1);
+      values[i] = values[j];
+      values[j] = i;
+    }
+    return values;
+  }
+
+  /**
+   * @return the puzzle with its rows, columns and digits reordered, and
+   *     perhaps transposed
+   */
+  static Board shuffle(String puzzle, Random random) {
+    int[] rows = lines(random);
+    int[] columns = lines(random);
+    int[] digits = shuffled(random, 9);
+    boolean transposed = random.nextBoolean();
+    Board board = new Board(9);
+    for (int row = 0; row < 9; row++) {
+      for (int column = 0; column < 9; column++) {
+        char c = transposed
+            ? puzzle.charAt(columns[column] * 9 + rows[row])
+            : puzzle.charAt(rows[row] * 9 + columns[column]);
+        board.set(row, column, c == '.' ? 0 : digits[c - '1'] + 1);
+      }
+    }
+    return board;
+  }
+
+  /**
+   * Checks that the board is a solution that keeps every given of the
+   * puzzle.
+   */
+  static void assertSolves(Board puzzle, Board board) {
+    for (int i = 0; i < 9; i++) {
+      int rows = 0;
+      int columns = 0;
+      int boxes = 0;
+      for (int j = 0; j < 9; j++) {
+        rows |= 1 << board.get(i, j);
+        columns |= 1 << board.get(j, i);
+        boxes |= 1 << board.get(i / 3 * 3 + j / 3, i % 3 * 3 + j % 3);
+        if (puzzle.get(i, j) != 0) {
+          assertEquals(puzzle.get(i, j), board.get(i, j));
+        }
+      }
+      assertEquals(0x3fe, rows);
+      assertEquals(0x3fe, columns);
+      assertEquals(0x3fe, boxes);
+    }
+  }
+
+  @Test
+  void copiesShareTheForm() {
+    Random random = new Random(31);
+    for (String puzzle : PUZZLES) {
+      CanonicalForm form = CanonicalForm.of(Board.parse(puzzle));
+      for (int copy = 0; copy < 50; copy++) {
+        Board board = shuffle(puzzle, random);
+        CanonicalForm other = CanonicalForm.of(board);
+        assertEquals(form, other, board.toLine());
+        assertEquals(form.hashCode(), other.hashCode());
+        assertEquals(form.toString(), other.toString());
+      }
+    }
+  }
+
+  @Test
+  void differentPuzzlesDoNot() {
+    for (int i = 0; i < PUZZLES.length; i++) {
+      for (int j = i + 1; j < PUZZLES.length; j++) {
+        assertNotEquals(CanonicalForm.of(Board.parse(PUZZLES[i])),
+            CanonicalForm.of(Board.parse(PUZZLES[j])));
+      }
+    }
+  }
+
+  @Test
+  void formIsAnEquivalentPuzzle() {
+    for (String puzzle : PUZZLES) {
+      Board form = CanonicalForm.of(Board.parse(puzzle)).toBoard();
+      assertEquals(CanonicalForm.of(Board.parse(puzzle)), CanonicalForm.of(form));
+    }
+  }
+
+  /*
+   * A solution rearranged into the form of one copy, and restored through the
+   * form of another, solves the other.
+   */
+  @Test
+  void restoreSolvesEveryCopy() {
+    Random random = new Random(47);
+    for (String puzzle : PUZZLES) {
+      Board solved = Board.parse(puzzle);
+      assertTrue(new Solver(solved).solve());
+      byte[] solution = CanonicalForm.of(Board.parse(puzzle)).rearrange(solved);
+      for (int copy = 0; copy < 20; copy++) {
+        Board board = shuffle(puzzle, random);
+        Board given = new Board(board);
+        CanonicalForm.of(board).restore(solution, board);
+        assertSolves(given, board);
+      }
+    }
+  }
+}
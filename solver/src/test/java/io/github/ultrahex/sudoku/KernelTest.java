@@ -0,0 +1,167 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link VectorKernel} must pick the same cell as the plain {@link Kernel} on
+ * any masks, including the tails that do not fill a whole vector.
+ *
+ * @author Matthew William Noel
+ */
+class KernelTest {
+
+  /*
+   * Every board size, and every length up to a few vectors, so that each
+   * possible tail is covered whatever the number of lanes.
+   */
+  private static final int[] LENGTHS;
+
+  private static Kernel vector;
+
+  static {
+    int[] sizes = {4 * 4, 9 * 9, 16 * 16, 25 * 25};
+    LENGTHS = Arrays.copyOf(sizes, sizes.length + 100);
+    for (int i = 0; i < 100; i++) {
+      LENGTHS[sizes.length + i] = i;
+    }
+  }
+
+  @BeforeAll
+  static void loadVector() {
+    vector = Kernel.vector();
+    assertNotNull(vector, "The Vector API is not available");
+  }
+
+  /*
+   * The first cell with no more than two candidates, or failing that the
+   * first with the fewest, written as plainly as possible.
+   */
+  private static int expected(int[] masks) {
+    int best = -1;
+    for (int cell = 0; cell < masks.length; cell++) {
+      int count = Integer.bitCount(masks[cell]);
+      if (count == 0) {
+        continue;
+      }
+      if (count <= 2) {
+        return cell;
+      }
+      if (best == -1 || count < Integer.bitCount(masks[best])) {
+        best = cell;
+      }
+    }
+    return best;
+  }
+
+  private static void check(int[] masks) {
+    int expected = expected(masks);
+    assertEquals(expected, Kernel.SCALAR.mostConstrainedCell(masks),
+        () -> "scalar on " + Arrays.toString(masks));
+    assertEquals(expected, vector.mostConstrainedCell(masks),
+        () -> vector + " on " + Arrays.toString(masks));
+  }
+
+  @Test
+  void allZero() {
+    for (int length : LENGTHS) {
+      check(new int[length]);
+    }
+  }
+
+  @Test
+  void singleMinimum() {
+    for (int length : LENGTHS) {
+      for (int cell = 0; cell < length; cell++) {
+        int[] masks = new int[length];
+        Arrays.fill(masks, 0b11111);
+        masks[cell] = 0b111;
+        check(masks);
+      }
+    }
+  }
+
+  @Test
+  void tiedMinimums() {
+    for (int length : LENGTHS) {
+      int[] masks = new int[length];
+      Arrays.fill(masks, 0b111);
+      check(masks);
+
+      for (int first = 0; first < Math.min(length, 40); first++) {
+        for (int second = first + 1; second < length; second++) {
+          Arrays.fill(masks, 0b11111);
+          masks[first] = 0b1110;
+          masks[second] = 0b0111;
+          check(masks);
+        }
+      }
+    }
+  }
+
+  @Test
+  void singleBits() {
+    for (int length : LENGTHS) {
+      int[] masks = new int[length];
+      for (int cell = 0; cell < length; cell++) {
+        masks[cell] = 1 << (cell % 25);
+      }
+      check(masks);
+
+      for (int cell = 0; cell < length; cell++) {
+        Arrays.fill(masks, 0);
+        masks[cell] = 1 << (cell % 25);
+        check(masks);
+        Arrays.fill(masks, 0b1111);
+        masks[cell] = 1 << (cell % 25);
+        check(masks);
+      }
+    }
+  }
+
+  @Test
+  void random() {
+    Random random = new Random(0x5ad0c0deL);
+    for (int trial = 0; trial < 20_000; trial++) {
+      int length = LENGTHS[random.nextInt(LENGTHS.length)];
+      int digits = 4 + random.nextInt(22);
+      int filled = random.nextInt(101);
+      int[] masks = new int[length];
+      for (int cell = 0; cell < length; cell++) {
+        if (random.nextInt(100) >= filled) {
+          /*
+           * Mostly wide masks, so that the fewest is often more than two and
+           * the whole array has to be scanned.
+           */
+          int mask = random.nextInt(1 << digits) | random.nextInt(1 << digits);
+          masks[cell] = random.nextInt(8) == 0 ? mask & random.nextInt(1 << digits) : mask;
+        }
+      }
+      check(masks);
+    }
+  }
+}
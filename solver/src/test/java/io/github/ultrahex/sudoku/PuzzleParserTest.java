@@ -0,0 +1,167 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.ultrahex.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Every notation {@link PuzzleParser} understands, and where it says a puzzle
+ * went wrong.
+ *
+ * @author Matthew William Noel
+ */
+class PuzzleParserTest {
+
+  private static final String PUZZLE =
+      "4.....8.5.3..........7......2.....6.....8.4......1.......6.3.7.5..2.....1.4......";
+
+  /*
+   * The same puzzle a row to a line, with spaces for blanks and the trailing
+   * spaces of each row left out.
+   */
+  private static final String[] SPACED = new String[9];
+
+  static {
+    for (int row = 0; row < 9; row++) {
+      SPACED[row] = PUZZLE.substring(row * 9, row * 9 + 9).replace('.', ' ').stripTrailing();
+    }
+  }
+
+  private static PuzzleParser parser(String text) {
+    return new PuzzleParser(ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII)));
+  }
+
+  private static String parse(String text) {
+    return parser(text).parseBoard().toLine();
+  }
+
+  private static void assertFails(String text, String message, int line, int column) {
+    PuzzleFormatException ex = assertThrows(PuzzleFormatException.class,
+        () -> parser(text).parseBoard());
+    assertEquals("Line " + line + (column > 0 ? ", column " + column : "") + ": " + message,
+        ex.getMessage());
+    assertEquals(line, ex.getLine());
+    assertEquals(column, ex.getColumn());
+  }
+
+  @Test
+  void oneLine() {
+    assertEquals(PUZZLE, parse(PUZZLE));
+    assertEquals(PUZZLE, parse(PUZZLE + "\n"));
+    assertEquals(PUZZLE, parse(PUZZLE.replace('.', '0')));
+    assertEquals(PUZZLE, parse(PUZZLE.replace('.', '_')));
+  }
+
+  @Test
+  void lettersInEitherCase() {
+    String upper = "G" + ".".repeat(254) + "A";
+    assertEquals(upper, parse(upper));
+    assertEquals(upper, parse(upper.toLowerCase()));
+  }
+
+  @Test
+  void rowsWithBorders() {
+    StringBuilder text = new StringBuilder();
+    for (int row = 0; row < 9; row++) {
+      if (row > 0 && row % 3 == 0) {
+        text.append("------+-------+------\r\n");
+      }
+      for (int column = 0; column < 9; column++) {
+        if (column > 0) {
+          text.append(column % 3 == 0 ? " | " : " ");
+        }
+        text.append(PUZZLE.charAt(row * 9 + column));
+      }
+      text.append("\r\n");
+    }
+    assertEquals(PUZZLE, parse(text.toString()));
+  }
+
+  @Test
+  void spacesForBlanks() {
+    String rows = String.join("\n", SPACED);
+    String last = PUZZLE.substring(0, 72) + ".........";
+    String spaces = " ".repeat(9);
+
+    assertEquals(PUZZLE, parse(rows));
+    assertEquals(PUZZLE, parse(rows.replace("\n", "\r\n") + "\r\n"));
+    assertEquals(PUZZLE, parse("\n\n" + rows + "\n\n\n"));
+    assertEquals(PUZZLE, parse(rows.replace(' ', '\t')));
+
+    // A last row of nothing but spaces is still a row.
+    String blankLast = rows.substring(0, rows.lastIndexOf('\n') + 1) + spaces;
+    assertEquals(last, parse(blankLast));
+    assertEquals(last, parse(blankLast + "\n"));
+    assertEquals(last, parse("\n" + blankLast + "\n\n"));
+  }
+
+  @Test
+  void onePerLine() {
+    PuzzleParser parser = parser("\n" + PUZZLE + "\n   \n\n" + PUZZLE.replace('.', '0'));
+    byte[] cells = new byte[PuzzleParser.MAX_CELLS];
+    assertEquals(9, parser.next(cells));
+    assertEquals(4, cells[0]);
+    assertEquals(PUZZLE, parser.nextBoard().toLine());
+    assertEquals(0, parser.next(cells));
+    assertNull(parser.nextBoard());
+  }
+
+  @Test
+  void notADigit() {
+    assertFails(PUZZLE.substring(0, 5) + "x" + PUZZLE.substring(6),
+        "'x' is neither a digit nor a blank", 1, 6);
+    String[] rows = SPACED.clone();
+    rows[2] = "  x7";
+    assertFails("\n" + String.join("\n", rows), "'x' is neither a digit nor a blank", 4, 3);
+
+    PuzzleParser parser = parser(PUZZLE + "\n\n" + PUZZLE.replace('3', 'q'));
+    parser.nextBoard();
+    PuzzleFormatException ex = assertThrows(PuzzleFormatException.class, parser::nextBoard);
+    assertEquals(3, ex.getLine());
+    assertEquals(PUZZLE.indexOf('3') + 1, ex.getColumn());
+  }
+
+  @Test
+  void wrongNumberOfCells() {
+    assertFails(PUZZLE.substring(1), "80 cells do not make a board", 1, 0);
+    assertFails("\n\n" + ".".repeat(36), "6 is not a square board size", 3, 0);
+    assertFails(".", "Boxes must be between 2 and 5 cells on a side", 1, 0);
+    assertFails(".".repeat(PuzzleParser.MAX_CELLS + 1), "Too many cells", 1,
+        PuzzleParser.MAX_CELLS + 1);
+  }
+
+  @Test
+  void digitTooLarge() {
+    assertFails("1234\n3412\n2153\n4321", "'5' is not a digit of a 4x4 board", 3, 3);
+  }
+
+  @Test
+  void noPuzzle() {
+    assertFails("", "There is no puzzle", 1, 0);
+    assertFails(" \n\t\n\n", "There is no puzzle", 1, 0);
+    assertEquals(0, parser("\n \n").next(new byte[PuzzleParser.MAX_CELLS]));
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.ultrahex.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Hits, misses and evictions of {@link SolutionCache}.
+ *
+ * @author Matthew William Noel
+ */
+class SolutionCacheTest {
+
+  /*
+   * A solution with two cells blanked, one puzzle for every pair of cells,
+   * each cheap to solve.
+   */
+  private static Board twoBlanks(Board solution, int first, int second) {
+    Board board = new Board(solution);
+    board.set(first / 9, first % 9, 0);
+    board.set(second / 9, second % 9, 0);
+    return board;
+  }
+
+  private static Board solution() {
+    Board solution = Board.parse(CanonicalFormTest.PUZZLES[0]);
+    assertTrue(new Solver(solution).solve());
+    return solution;
+  }
+
+  @Test
+  void copiesAreHits() {
+    SolutionCache cache = new SolutionCache(100);
+    Random random = new Random(5);
+    for (String puzzle : CanonicalFormTest.PUZZLES) {
+      assertTrue(cache.solve(Board.parse(puzzle)));
+      for (int copy = 0; copy < 10; copy++) {
+        Board board = CanonicalFormTest.shuffle(puzzle, random);
+        Board given = new Board(board);
+        assertTrue(cache.solve(board));
+        CanonicalFormTest.assertSolves(given, board);
+      }
+    }
+    assertEquals(CanonicalFormTest.PUZZLES.length, cache.getMisses());
+    assertEquals(10 * CanonicalFormTest.PUZZLES.length, cache.getHits());
+    assertEquals(CanonicalFormTest.PUZZLES.length, cache.size());
+  }
+
+  @Test
+  void noSolutionIsRemembered() {
+    SolutionCache cache = new SolutionCache(10);
+    String puzzle = "11" + ".".repeat(79);
+    Board board = Board.parse(puzzle);
+    assertFalse(cache.solve(board));
+    assertFalse(cache.solve(CanonicalFormTest.shuffle(puzzle, new Random(3))));
+    assertEquals(puzzle, board.toLine());
+    assertEquals(1, cache.getHits());
+  }
+
+  @Test
+  void leastRecentlyUsedGoesFirst() {
+    Board solution = solution();
+    SolutionCache cache = new SolutionCache(2);
+    cache.solve(twoBlanks(solution, 0, 1));
+    cache.solve(twoBlanks(solution, 0, 80));
+    cache.solve(twoBlanks(solution, 0, 1));
+    cache.solve(twoBlanks(solution, 40, 80));
+    assertEquals(1, cache.getEvictions());
+    assertEquals(1, cache.getHits());
+
+    cache.solve(twoBlanks(solution, 0, 1));
+    assertEquals(2, cache.getHits());
+    cache.solve(twoBlanks(solution, 0, 80));
+    assertEquals(2, cache.getHits());
+    assertEquals(2, cache.size());
+  }
+
+  /*
+   * The segments add up to the capacity asked for, so once every one of them
+   * has been filled the cache holds exactly that many, and every other miss
+   * has been evicted.
+   */
+  @Test
+  void holdsExactlyTheCapacity() {
+    Board solution = solution();
+    for (int capacity : new int[] {1, 17, 100, 257, 1000}) {
+      SolutionCache cache = new SolutionCache(capacity);
+      for (int first = 0; first < 81; first++) {
+        for (int second = first + 1; second < 81; second++) {
+          assertTrue(cache.solve(twoBlanks(solution, first, second)));
+          assertTrue(cache.size() <= capacity);
+        }
+      }
+      assertEquals(capacity, cache.size(), "capacity " + capacity);
+      assertEquals(cache.getMisses(), cache.size() + cache.getEvictions());
+    }
+  }
+
+  @Test
+  void capacityMustBePositive() {
+    assertThrows(IllegalArgumentException.class, () -> new SolutionCache(0));
+  }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright © 2015-2016, 2019 Matthew William Noel
+ *
+ * This file is part of Sudoku-Solver.
+ *
+ * Sudoku-Solver is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.github.ultrahex.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * How {@link SolveProcessor} honours the Flow rules. Puzzles are solved only
+ * when a test runs the queued tasks, in whatever order it likes, so every
+ * case plays out the same way each time.
+ *
+ * @author Matthew William Noel
+ */
+class SolveProcessorTest {
+
+  private static final String PUZZLE =
+      "4.....8.5.3..........7......2.....6.....8.4......1.......6.3.7.5..2.....1.4......";
+
+  private final List<Runnable> tasks = new ArrayList<>();
+  private final Flow.Processor<Snapshot, SolveResult> processor;
+  private final Upstream upstream = new Upstream();
+  private final Downstream downstream = new Downstream();
+  private final List<Snapshot> sent = new ArrayList<>();
+
+  SolveProcessorTest() {
+    this.processor = new AsyncSolver(this.tasks::add).processor(4);
+  }
+
+  /*
+   * The puzzle with its digits moved on by the number given, so that each
+   * variant has its own solution.
+   */
+  private static Snapshot puzzle(int shift) {
+    StringBuilder builder = new StringBuilder(PUZZLE.length());
+    for (char c : PUZZLE.toCharArray()) {
+      builder.append(c == '.' ? c : (char) ('1' + (c - '1' + shift) % 9));
+    }
+    return Board.parse(builder).snapshot();
+  }
+
+  private static void assertSolves(Snapshot puzzle, SolveResult result) {
+    assertTrue(result.isSolved());
+    Snapshot grid = result.getGrid();
+    for (int row = 0; row < 9; row++) {
+      for (int column = 0; column < 9; column++) {
+        if (puzzle.get(row, column) != 0) {
+          assertEquals(puzzle.get(row, column), grid.get(row, column));
+        }
+      }
+    }
+  }
+
+  private void connect() {
+    this.processor.subscribe(this.downstream);
+    this.processor.onSubscribe(this.upstream);
+  }
+
+  /*
+   * Sends as many puzzles as upstream has been asked for.
+   */
+  private void send() {
+    while (this.sent.size() < this.upstream.requested && !this.upstream.cancelled) {
+      Snapshot puzzle = puzzle(this.sent.size());
+      this.sent.add(puzzle);
+      this.processor.onNext(puzzle);
+    }
+  }
+
+  private void runLastFirst() {
+    while (!this.tasks.isEmpty()) {
+      this.tasks.remove(this.tasks.size() - 1).run();
+    }
+  }
+
+  @Test
+  void neverMoreThanTheWindowOutstanding() {
+    this.connect();
+    assertEquals(4, this.upstream.requested);
+    this.send();
+    this.runLastFirst();
+    assertEquals(4, this.upstream.requested);
+    assertTrue(this.downstream.results.isEmpty());
+
+    Random random = new Random(17);
+    for (int step = 0; step < 200; step++) {
+      this.downstream.subscription.request(1 + random.nextInt(3));
+      this.send();
+      Collections.shuffle(this.tasks, random);
+      for (int count = random.nextInt(this.tasks.size() + 1); count > 0; count--) {
+        this.tasks.remove(0).run();
+      }
+      assertTrue(this.upstream.requested - this.downstream.results.size() <= 4);
+    }
+    this.runLastFirst();
+    this.processor.onComplete();
+    this.runLastFirst();
+    assertTrue(this.downstream.completed);
+    for (int index = 0; index < this.sent.size(); index++) {
+      assertSolves(this.sent.get(index), this.downstream.results.get(index));
+    }
+  }
+
+  @Test
+  void deliversInOrder() {
+    this.connect();
+    this.downstream.subscription.request(Long.MAX_VALUE);
+    for (int round = 0; round < 3; round++) {
+      this.send();
+      this.runLastFirst();
+    }
+    this.processor.onComplete();
+    assertTrue(this.downstream.completed);
+    assertEquals(this.sent.size(), this.downstream.results.size());
+    for (int index = 0; index < this.sent.size(); index++) {
+      assertSolves(this.sent.get(index), this.downstream.results.get(index));
+    }
+  }
+
+  @Test
+  void cancelStopsEverything() {
+    this.connect();
+    this.downstream.subscription.request(Long.MAX_VALUE);
+    this.send();
+    this.downstream.subscription.cancel();
+    assertTrue(this.upstream.cancelled);
+    this.runLastFirst();
+    this.processor.onComplete();
+    assertTrue(this.downstream.results.isEmpty());
+    assertFalse(this.downstream.completed);
+    assertNull(this.downstream.error);
+  }
+
+  @Test
+  void upstreamErrorComesAfterTheResults() {
+    this.connect();
+    this.downstream.subscription.request(Long.MAX_VALUE);
+    this.send();
+    IllegalStateException error = new IllegalStateException("upstream");
+    this.processor.onError(error);
+    assertNull(this.downstream.error);
+    this.runLastFirst();
+    assertEquals(4, this.downstream.results.size());
+    assertSame(error, this.downstream.error);
+    assertFalse(this.downstream.completed);
+  }
+
+  @Test
+  void requestZeroIsAnError() {
+    this.connect();
+    this.downstream.subscription.request(0);
+    assertInstanceOf(IllegalArgumentException.class, this.downstream.error);
+    assertTrue(this.upstream.cancelled);
+  }
+
+  @Test
+  void throwingSubscriberIsCancelled() {
+    this.connect();
+    this.downstream.subscription.request(Long.MAX_VALUE);
+    this.downstream.throwing = true;
+    this.send();
+    this.runLastFirst();
+    assertEquals(1, this.downstream.results.size());
+    assertTrue(this.upstream.cancelled);
+    this.downstream.subscription.request(1);
+    this.processor.onComplete();
+    assertEquals(1, this.downstream.results.size());
+    assertFalse(this.downstream.completed);
+  }
+
+  @Test
+  void onlyOneSubscriber() throws InterruptedException {
+    for (int round = 0; round < 100; round++) {
+      Flow.Processor<Snapshot, SolveResult> processor =
+          new AsyncSolver(this.tasks::add).processor(4);
+      Downstream first = new Downstream();
+      Downstream second = new Downstream();
+      CountDownLatch start = new CountDownLatch(1);
+      Thread other = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException ex) {
+          return;
+        }
+        processor.subscribe(second);
+      });
+      other.start();
+      start.countDown();
+      processor.subscribe(first);
+      other.join();
+      assertTrue(first.error == null ^ second.error == null);
+      Throwable error = first.error == null ? second.error : first.error;
+      assertInstanceOf(IllegalStateException.class, error);
+    }
+  }
+
+  /*
+   * Counts what it is asked for; the tests send the puzzles.
+   */
+  private static final class Upstream implements Flow.Subscription {
+
+    private long requested;
+    private boolean cancelled;
+
+    @Override
+    public void request(long n) {
+      this.requested += n;
+    }
+
+    @Override
+    public void cancel() {
+      this.cancelled = true;
+    }
+  }
+
+  private static final class Downstream implements Flow.Subscriber<SolveResult> {
+
+    private final List<SolveResult> results = new ArrayList<>();
+    private final AtomicInteger subscriptions = new AtomicInteger();
+    private volatile Flow.Subscription subscription;
+    private volatile Throwable error;
+    private volatile boolean completed;
+    private boolean throwing;
+
+    @Override
+    public void onComplete() {
+      this.completed = true;
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      this.error = throwable;
+    }
+
+    @Override
+    public void onNext(SolveResult result) {
+      this.results.add(result);
+      if (this.throwing) {
+        throw new IllegalStateException("subscriber");
+      }
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      assertEquals(1, this.subscriptions.incrementAndGet());
+      this.subscription = subscription;
+    }
+  }
+}